@@ -0,0 +1,131 @@
+/**
+ * Checks that every way of scoring a guess agrees. The packed kernel is
+ * checked against the original letter counting rules of getGuessResults for
+ * every guess against every answer with a repeated letter, and scoreAll is
+ * checked against the kernel for every guess against every answer.
+ *
+ * To run it from wordle-game/ after building the game into bin:
+ *     javac -d bin -cp bin bench/*.java
+ *     java --add-modules jdk.incubator.vector -cp bin ScorerCheck
+ *
+ * @author Kergan Sanderson
+ */
+public class ScorerCheck {
+
+    /**
+     * Starts the program, exiting with status 1 if anything disagrees.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        WordDictionary dictionary = WordDictionary.getShared();
+        int answers = dictionary.getAnswerCount();
+        int[] answerCodes = new int[answers];
+        for (int i = 0; i < answers; i++) {
+            answerCodes[i] = (int) dictionary.codeAt(
+                    dictionary.getAnswerIndex() + i);
+        }
+
+        // the kernel against the original rules, wherever repeats matter
+        long checked = 0;
+        long mismatches = 0;
+        for (int g = 0; g < dictionary.size(); g++) {
+            String guess = dictionary.wordAt(g);
+            for (int a = 0; a < answers; a++) {
+                String secret = Wordle.unpackWord(answerCodes[a]);
+                if (!hasRepeat(guess) && !hasRepeat(secret)) {
+                    continue;
+                }
+                checked++;
+                int expected = WordleScorer.patternOf(
+                        originalColors(guess, secret));
+                int guessCode = (int) dictionary.codeAt(g);
+                if (WordleScorer.score(guessCode, answerCodes[a]) != expected) {
+                    mismatches++;
+                    if (mismatches <= 10) {
+                        System.out.println("Kernel differs: " + guess + " vs "
+                                + secret);
+                    }
+                }
+            }
+        }
+        System.out.println("Kernel vs original rules: " + checked
+                + " pairs with repeated letters, " + mismatches
+                + " mismatches");
+
+        // scoreAll against the kernel, for every pair
+        byte[] patterns = new byte[answers];
+        long batchMismatches = 0;
+        for (int g = 0; g < dictionary.size(); g++) {
+            int guess = (int) dictionary.codeAt(g);
+            WordleScorer.scoreAll(guess, answerCodes, answers, patterns);
+            for (int a = 0; a < answers; a++) {
+                if ((patterns[a] & 0xFF)
+                        != WordleScorer.score(guess, answerCodes[a])) {
+                    batchMismatches++;
+                }
+            }
+        }
+        System.out.println("scoreAll (vectorized: "
+                + WordleScorer.isVectorized() + ") vs kernel: "
+                + (long) dictionary.size() * answers + " pairs, "
+                + batchMismatches + " mismatches");
+
+        if (mismatches + batchMismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Determines if a word has a repeated letter.
+     *
+     * @param word the word to check
+     * @return true if some letter appears more than once
+     */
+    private static boolean hasRepeat(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.indexOf(word.charAt(i), i + 1) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scores a guess the way getGuessResults originally did, by counting the
+     * letters of the secret word.
+     *
+     * @param guess the guess
+     * @param secret the secret word
+     * @return the colors of the guess
+     */
+    private static char[] originalColors(String guess, String secret) {
+        int[] lettersInSecretWord = new int[Wordle.THE_ALPHABET.length];
+        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+            lettersInSecretWord[Wordle.indexOfLetter(secret.charAt(i))]++;
+        }
+        int[] matchedLetters = new int[Wordle.THE_ALPHABET.length];
+        char[] guessColors = {'R', 'R', 'R', 'R', 'R'};
+
+        // get green letters first
+        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+            if (guess.charAt(i) == secret.charAt(i)) {
+                guessColors[i] = 'G';
+                matchedLetters[Wordle.indexOfLetter(guess.charAt(i))]++;
+            }
+        }
+
+        // get yellow letters next, skipping the green ones
+        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+            if (guessColors[i] == 'G') {
+                continue;
+            }
+            int lIndex = Wordle.indexOfLetter(guess.charAt(i));
+            if (matchedLetters[lIndex] < lettersInSecretWord[lIndex]) {
+                guessColors[i] = 'Y';
+                matchedLetters[lIndex]++;
+            }
+        }
+        return guessColors;
+    }
+}
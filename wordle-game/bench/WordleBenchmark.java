@@ -0,0 +1,243 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Microbenchmarks for the hot paths of the Wordle model. Each benchmark is
+ * warmed up, then run for a fixed amount of time, and the time per operation,
+ * the bytes allocated per operation, and the garbage collections during the
+ * run are reported.
+ *
+ * This is a rough check for when Maven can't be used. It runs everything in
+ * one JVM with only a volatile sink against dead code, so trust the JMH
+ * benchmarks in jmh/ (built with mvn -P jmh package) over it.
+ *
+ * To run it from wordle-game/ after building the game into bin:
+ *     javac -d bin -cp bin bench/*.java
+ *     java --add-modules jdk.incubator.vector -cp bin WordleBenchmark [filter]
+ *
+ * The scoreAll benchmarks score one guess against every answer, so divide by
+ * the number of answers for the time per word.
+ *
+ * @author Kergan Sanderson
+ */
+public class WordleBenchmark {
+
+    /** How long to warm up each benchmark, in nanoseconds. */
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+
+    /** How long to measure each benchmark, in nanoseconds. */
+    private static final long MEASURE_NANOS = 2_000_000_000L;
+
+    /** The number of operations between checks of the clock. */
+    private static final int BATCH_SIZE = 64;
+
+    /** Collects results so the JIT can't remove the benchmarked code. */
+    private static volatile long sink;
+
+    /**
+     * A single benchmarked operation.
+     */
+    private interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @param i the number of the call, used to vary the inputs
+         * @return a value derived from the result of the operation
+         */
+        long run(int i);
+    }
+
+    /**
+     * A named operation to benchmark.
+     */
+    private static final class Benchmark {
+
+        /** The name of the benchmark. */
+        private final String name;
+
+        /** The operation being benchmarked. */
+        private final Operation operation;
+
+        /**
+         * Creates the benchmark.
+         *
+         * @param name the name of the benchmark
+         * @param operation the operation being benchmarked
+         */
+        private Benchmark(String name, Operation operation) {
+            this.name = name;
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * Starts the program.
+     *
+     * @param args command line arguments, optionally a filter on the names of
+     *             the benchmarks to run
+     */
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+
+        Wordle model = new Wordle();
+        WordDictionary dictionary = model.getDictionary();
+        int answers = dictionary.getAnswerCount();
+
+        // words from the list, and 5 letter words that aren't in it
+        String[] hits = new String[1024];
+        String[] misses = new String[1024];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = dictionary.wordAt((i * 7919) % dictionary.size());
+            misses[i] = "zz" + (char) ('a' + i % 26)
+                    + (char) ('a' + i / 26 % 26) + "q";
+        }
+
+        // guesses with repeated letters, scored against secrets with repeats
+        String[] repeatSecrets = {"abbey", "geese", "mamma", "eerie", "llama"};
+        String[] repeatGuesses = {"babes", "eerie", "mamma", "geese", "lilac",
+                                  "emcee", "allay", "kebab"};
+
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.add(new Benchmark("construct", i ->
+                new Wordle().getSecretWord().length()));
+        benchmarks.add(new Benchmark("isValidGuess.hit", i ->
+                model.isValidGuess(hits[i & 1023]) ? 1 : 0));
+        benchmarks.add(new Benchmark("isValidGuess.miss", i ->
+                model.isValidGuess(misses[i & 1023]) ? 1 : 0));
+        benchmarks.add(new Benchmark("getGuessResults", i -> {
+            if ((i & 3) == 0) {
+                model.resetGame(dictionary.wordAt(
+                        dictionary.getAnswerIndex() + i % answers));
+            }
+            return model.getGuessResults(hits[i & 1023]).getColor(0);
+        }));
+        benchmarks.add(new Benchmark("getGuessResults.repeats", i -> {
+            if ((i & 3) == 0) {
+                model.resetGame(repeatSecrets[(i >>> 2) % 5]);
+            }
+            return model.getGuessResults(repeatGuesses[i & 7]).getColor(0);
+        }));
+        benchmarks.add(new Benchmark("indexOfLetter", i ->
+                Wordle.indexOfLetter((char) ('a' + i % 26))));
+        int[] answerCodes = new int[answers];
+        for (int i = 0; i < answers; i++) {
+            answerCodes[i] = (int) dictionary.codeAt(
+                    dictionary.getAnswerIndex() + i);
+        }
+        byte[] patterns = new byte[answers];
+        benchmarks.add(new Benchmark("scoreAll", i -> {
+            WordleScorer.scoreAll(
+                    (int) dictionary.codeAt(i % dictionary.size()),
+                    answerCodes, answers, patterns);
+            return patterns[i % answers];
+        }));
+        benchmarks.add(new Benchmark("scoreAllScalar", i -> {
+            WordleScorer.scoreAllScalar(
+                    (int) dictionary.codeAt(i % dictionary.size()),
+                    answerCodes, answers, patterns);
+            return patterns[i % answers];
+        }));
+        WordIndex index = new WordIndex(dictionary);
+        benchmarks.add(new Benchmark("query.pattern", i ->
+                index.query().matching("?a?e?").containing("r").excluding("s")
+                        .stream().count()));
+        benchmarks.add(new Benchmark("query.anagram", i ->
+                index.query().anagramOf("least").stream().count()));
+        benchmarks.add(new Benchmark("resetGame", i -> {
+            model.resetGame();
+            return model.getSecretWord().length();
+        }));
+
+        System.out.printf("%-26s %14s %14s %8s %8s%n", "Benchmark", "ns/op",
+                "B/op", "GCs", "GC ms");
+        for (Benchmark benchmark : benchmarks) {
+            if (benchmark.name.contains(filter)) {
+                measure(benchmark);
+            }
+        }
+    }
+
+    /**
+     * Warms up and measures one benchmark, then prints its results.
+     *
+     * @param benchmark the benchmark to run
+     */
+    private static void measure(Benchmark benchmark) {
+        run(benchmark.operation, WARMUP_NANOS);
+
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        long operations = run(benchmark.operation, MEASURE_NANOS);
+        long elapsed = System.nanoTime() - start;
+        allocated = allocatedBytes() - allocated;
+
+        System.out.printf("%-26s %14.1f %14.1f %8d %8d%n", benchmark.name,
+                (double) elapsed / operations, (double) allocated / operations,
+                gcCount() - gcCount, gcMillis() - gcMillis);
+    }
+
+    /**
+     * Runs an operation over and over for an amount of time.
+     *
+     * @param operation the operation to run
+     * @param nanos how long to run it for
+     * @return the number of times the operation was run
+     */
+    private static long run(Operation operation, long nanos) {
+        long end = System.nanoTime() + nanos;
+        long operations = 0;
+        long result = 0;
+        int i = 0;
+        while (System.nanoTime() < end) {
+            for (int j = 0; j < BATCH_SIZE; j++) {
+                result += operation.run(i++);
+            }
+            operations += BATCH_SIZE;
+        }
+        sink = result;
+        return operations;
+    }
+
+    /**
+     * Returns the number of bytes this thread has allocated so far.
+     *
+     * @return the bytes allocated by the current thread
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean)
+                ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Returns the number of garbage collections so far.
+     *
+     * @return the total collections across all collectors
+     */
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc
+                : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += gc.getCollectionCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the time spent in garbage collection so far.
+     *
+     * @return the total collection time across all collectors in milliseconds
+     */
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc
+                : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += gc.getCollectionTime();
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,599 @@
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A load generator that plays many simulated players at once, to find out how
+ * many players a node can handle. Each player runs on its own virtual thread
+ * and plays game after game, either in this process through a
+ * WordleController, or against a running WordleServer over HTTP.
+ *
+ * Every guess is timed from the moment it is submitted until its result comes
+ * back, which covers the whole isValidGuess, getGuessResults and end of game
+ * flow of WordleController.getGuessResults. The latencies are recorded in a
+ * histogram with a fixed relative precision, like HdrHistogram, and the
+ * throughput, latency percentiles, allocation and garbage collection during
+ * the run are reported. Guesses made during the ramp-up aren't counted.
+ *
+ * To run it from wordle-game/ after building the game into bin:
+ *     javac -d bin -cp bin bench/*.java
+ *     java --add-modules jdk.incubator.vector -cp bin WordleLoadTest [options]
+ *
+ * The options are:
+ *     --players n      the number of simulated players (default 100)
+ *     --duration s     how long to measure for, in seconds (default 10)
+ *     --ramp-up s      how long to spend starting the players (default 2)
+ *     --think ms       how long each player waits between guesses (default 0)
+ *     --strategy name  random, tree or solver (default random)
+ *     --server url     play against a server such as http://localhost:8080
+ *                      instead of in this process
+ *
+ * @author Kergan Sanderson
+ */
+public class WordleLoadTest {
+
+    /** How often the random strategy guesses a word that isn't in the list. */
+    private static final int INVALID_GUESS_ODDS = 10;
+
+    /** The number of players to simulate. */
+    private final int players;
+
+    /** How long to measure for, in nanoseconds. */
+    private final long durationNanos;
+
+    /** How long to spend starting the players, in nanoseconds. */
+    private final long rampUpNanos;
+
+    /** How long each player waits between guesses, in milliseconds. */
+    private final long thinkMillis;
+
+    /** The strategy every player uses. */
+    private final WordleStrategy strategy;
+
+    /** The word list shared by every game. */
+    private final WordDictionary dictionary;
+
+    /** The server to play against, or null to play in this process. */
+    private final String serverUrl;
+
+    /** The client used to talk to the server, or null if there isn't one. */
+    private final HttpClient client;
+
+    /** The latency of every measured guess. */
+    private final Histogram latencies;
+
+    /** When the measurement starts, from System.nanoTime. */
+    private long measureStart;
+
+    /** When the measurement ends, from System.nanoTime. */
+    private long measureEnd;
+
+    /**
+     * Creates the load test.
+     *
+     * @param players the number of players to simulate
+     * @param durationNanos how long to measure for
+     * @param rampUpNanos how long to spend starting the players
+     * @param thinkMillis how long each player waits between guesses
+     * @param strategy the strategy every player uses
+     * @param dictionary the word list shared by every game
+     * @param serverUrl the server to play against, or null to play in this
+     *                  process
+     */
+    public WordleLoadTest(int players, long durationNanos, long rampUpNanos,
+            long thinkMillis, WordleStrategy strategy, WordDictionary dictionary,
+            String serverUrl) {
+        if (players < 1) {
+            throw new IllegalArgumentException("Need at least one player");
+        }
+        this.players = players;
+        this.durationNanos = durationNanos;
+        this.rampUpNanos = rampUpNanos;
+        this.thinkMillis = thinkMillis;
+        this.strategy = strategy;
+        this.dictionary = dictionary;
+        this.serverUrl = serverUrl;
+        this.client = serverUrl == null ? null : HttpClient.newHttpClient();
+        this.latencies = new Histogram();
+    }
+
+    /**
+     * Runs every player until the measurement ends, then prints a report.
+     *
+     * @throws Exception if a player fails
+     */
+    public void run() throws Exception {
+        long start = System.nanoTime();
+        measureStart = start + rampUpNanos;
+        measureEnd = measureStart + durationNanos;
+
+        List<Player> all = new ArrayList<>();
+        List<Future<?>> running = new ArrayList<>();
+        long gcCount = 0;
+        long gcMillis = 0;
+        long allocated = 0;
+        try (ExecutorService executor
+                = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < players; i++) {
+                // spread the players' start times evenly over the ramp-up
+                Player player = new Player(start + rampUpNanos * i / players);
+                all.add(player);
+                running.add(executor.submit(() -> {
+                    player.play();
+                    return null;
+                }));
+            }
+
+            // take the counters once the ramp-up is over
+            sleepUntil(measureStart);
+            gcCount = gcCount();
+            gcMillis = gcMillis();
+            allocated = allocatedBytes();
+            sleepUntil(measureEnd);
+            gcCount = gcCount() - gcCount;
+            gcMillis = gcMillis() - gcMillis;
+            allocated = allocatedBytes() - allocated;
+
+            for (Future<?> future : running) {
+                future.get();
+            }
+        }
+
+        // add up the players' results
+        long guesses = 0;
+        long rejected = 0;
+        long games = 0;
+        long won = 0;
+        for (Player player : all) {
+            guesses += player.guesses;
+            rejected += player.rejected;
+            games += player.games;
+            won += player.won;
+        }
+
+        double seconds = durationNanos / 1e9;
+        System.out.printf("Players:     %d (%s, %s)%n", players,
+                serverUrl == null ? "in process" : serverUrl,
+                strategy.getClass().getSimpleName());
+        System.out.printf("Throughput:  %.1f guesses/s, %.1f games/s%n",
+                guesses / seconds, games / seconds);
+        System.out.printf("Guesses:     %d, %d rejected%n", guesses, rejected);
+        System.out.printf("Games:       %d finished, %d won%n", games, won);
+        System.out.printf("Latency us:  p50 %.1f  p90 %.1f  p99 %.1f  "
+                + "p99.9 %.1f  max %.1f%n",
+                latencies.percentile(50) / 1e3,
+                latencies.percentile(90) / 1e3,
+                latencies.percentile(99) / 1e3,
+                latencies.percentile(99.9) / 1e3,
+                latencies.getMax() / 1e3);
+        System.out.printf("Allocation:  %.1f MB, %.0f B/guess%s%n",
+                allocated / 1e6, guesses == 0 ? 0.0 : (double) allocated / guesses,
+                serverUrl == null ? "" : " (client only)");
+        System.out.printf("GC:          %d collections, %d ms%n", gcCount,
+                gcMillis);
+    }
+
+    /**
+     * One simulated player, playing games until the measurement ends. Each
+     * player only touches its own counters, so they don't need to be shared,
+     * and they are added up once every player has finished.
+     */
+    private final class Player implements WordleView {
+
+        /** When the player starts, from System.nanoTime. */
+        private final long startAt;
+
+        /** The results of the guesses in the current game. */
+        private final List<GuessResult> history;
+
+        /** The number of measured guesses with a result. */
+        private long guesses;
+
+        /** The number of measured guesses that were not allowed. */
+        private long rejected;
+
+        /** The number of measured games that were finished. */
+        private long games;
+
+        /** The number of measured games that were won. */
+        private long won;
+
+        /** Whether the controller has ended the current game. */
+        private boolean over;
+
+        /**
+         * Creates the player.
+         *
+         * @param startAt when the player starts, from System.nanoTime
+         */
+        private Player(long startAt) {
+            this.startAt = startAt;
+            this.history = new ArrayList<>();
+        }
+
+        /**
+         * Plays games until the measurement ends.
+         *
+         * @throws IOException if the server can't be reached
+         * @throws InterruptedException if interrupted while waiting
+         */
+        private void play() throws IOException, InterruptedException {
+            sleepUntil(startAt);
+            WordleController controller = null;
+            if (serverUrl == null) {
+                controller = new WordleController(new Wordle(dictionary), this);
+            }
+            while (System.nanoTime() < measureEnd) {
+                String id = null;
+                if (controller != null) {
+                    controller.startNewGame();
+                } else {
+                    id = newGame();
+                    clearOutput();
+                }
+
+                while (!over && System.nanoTime() < measureEnd) {
+                    String guess = strategy.nextGuess(history);
+                    long before = System.nanoTime();
+                    GuessResult result = controller != null
+                            ? controller.getGuessResults(guess)
+                            : submitGuess(id, guess);
+                    long after = System.nanoTime();
+
+                    if (before >= measureStart && after <= measureEnd) {
+                        latencies.record(after - before);
+                        if (result == null) {
+                            rejected++;
+                        } else {
+                            guesses++;
+                        }
+                    }
+                    if (over && after >= measureStart && after <= measureEnd) {
+                        games++;
+                        if (result != null && result.isCorrect()) {
+                            won++;
+                        }
+                    }
+                    if (thinkMillis > 0) {
+                        Thread.sleep(thinkMillis);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Starts a game on the server.
+         *
+         * @return the id of the game
+         * @throws IOException if the server can't be reached
+         * @throws InterruptedException if interrupted while waiting
+         */
+        private String newGame() throws IOException, InterruptedException {
+            String json = post(serverUrl + "/games", "").body();
+            return stringField(json, "id");
+        }
+
+        /**
+         * Submits a guess to a game on the server.
+         *
+         * @param id the id of the game
+         * @param guess the guess
+         * @return the results of the guess, or null if it was not allowed
+         * @throws IOException if the server can't be reached
+         * @throws InterruptedException if interrupted while waiting
+         */
+        private GuessResult submitGuess(String id, String guess)
+                throws IOException, InterruptedException {
+            HttpResponse<String> response = post(serverUrl + "/games/" + id
+                    + "/guesses", guess);
+            if (response.statusCode() != 200) {
+                // a finished game can't take more guesses
+                over = response.statusCode() == 409;
+                return null;
+            }
+            String json = response.body();
+            GuessResult result = new GuessResult(Wordle.packWord(guess),
+                    WordleScorer.patternOf(stringField(json, "colors")
+                            .toCharArray()), history.size());
+            displayGuess(result);
+            over = json.contains("\"over\":true");
+            return result;
+        }
+
+        @Override
+        public void displayGuess(GuessResult result) {
+            history.add(result);
+        }
+
+        @Override
+        public void rejectGuess(String guess, String reason) {
+        }
+
+        @Override
+        public void endGame(String secretWord) {
+            over = true;
+        }
+
+        @Override
+        public void clearOutput() {
+            history.clear();
+            over = false;
+        }
+    }
+
+    /**
+     * Sends a POST request to the server.
+     *
+     * @param url the url to post to
+     * @param body the body of the request
+     * @return the response
+     * @throws IOException if the server can't be reached
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private HttpResponse<String> post(String url, String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Reads the first string field with a given name out of a JSON object.
+     *
+     * @param json the JSON text
+     * @param name the name of the field
+     * @return the value of the field
+     * @throws IOException if the field isn't there
+     */
+    private static String stringField(String json, String name)
+            throws IOException {
+        String key = "\"" + name + "\":\"";
+        int start = json.indexOf(key);
+        if (start == -1) {
+            throw new IOException("Missing " + name + " in " + json);
+        }
+        start += key.length();
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    /**
+     * A histogram of latencies in nanoseconds that any number of threads can
+     * record into at once. Values below 128 are counted exactly, and larger
+     * values are counted in buckets that are at most 1/64 of the value wide,
+     * so every percentile is within about 1.6%, like HdrHistogram with two
+     * significant digits. Recording never allocates or locks.
+     */
+    static final class Histogram {
+
+        /** The number of bits of precision kept for each value. */
+        private static final int SUB_BUCKET_BITS = 6;
+
+        /** The number of buckets for each power of 2. */
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        /** The largest value that can be told apart, about 2 minutes. */
+        private static final long HIGHEST_VALUE = (1L << 37) - 1;
+
+        /** The count of values in each bucket. */
+        private final AtomicLongArray counts;
+
+        /** The largest value recorded. */
+        private final AtomicLong max;
+
+        /**
+         * Creates an empty histogram.
+         */
+        Histogram() {
+            counts = new AtomicLongArray(bucketOf(HIGHEST_VALUE) + 1);
+            max = new AtomicLong();
+        }
+
+        /**
+         * Records a value. Values too large to tell apart are counted in the
+         * last bucket, though the largest value is still kept exactly.
+         *
+         * @param value the value, which must not be negative
+         */
+        void record(long value) {
+            counts.incrementAndGet(bucketOf(Math.min(value, HIGHEST_VALUE)));
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        /**
+         * Returns a percentile of the recorded values. This should only be
+         * called once recording has stopped.
+         *
+         * @param percent the percentile, from 0 to 100
+         * @return the largest value that falls in the same bucket as the
+         *         percentile, or 0 if nothing was recorded
+         */
+        long percentile(double percent) {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percent / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length() && total > 0; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(max.get(), highestValueOf(i));
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Getter method for the largest value.
+         *
+         * @return the largest value recorded
+         */
+        long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Finds the bucket for a value.
+         *
+         * @param value the value
+         * @return the index of its bucket
+         */
+        private static int bucketOf(long value) {
+            if (value < 2 * SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            return shift * SUB_BUCKETS + (int) (value >>> shift);
+        }
+
+        /**
+         * Finds the largest value that goes in a bucket.
+         *
+         * @param bucket the index of the bucket
+         * @return the largest value in it
+         */
+        private static long highestValueOf(int bucket) {
+            if (bucket < 2 * SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            long mantissa = bucket - shift * SUB_BUCKETS;
+            return ((mantissa + 1) << shift) - 1;
+        }
+    }
+
+    /**
+     * Plays random words from the list, with the odd word that isn't in it.
+     */
+    private static final class RandomStrategy implements WordleStrategy {
+
+        /** The word list to pick from. */
+        private final WordDictionary dictionary;
+
+        /**
+         * Creates the strategy.
+         *
+         * @param dictionary the word list to pick from
+         */
+        private RandomStrategy(WordDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public String nextGuess(List<GuessResult> history) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextInt(INVALID_GUESS_ODDS) == 0) {
+                return "zzzzq";
+            }
+            return dictionary.wordAt(random.nextInt(dictionary.size()));
+        }
+    }
+
+    /**
+     * Sleeps until a point in time.
+     *
+     * @param deadline when to wake up, from System.nanoTime
+     * @throws InterruptedException if interrupted while sleeping
+     */
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns the number of bytes every thread has allocated so far.
+     *
+     * @return the bytes allocated by all threads, including virtual threads
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean)
+                ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+
+    /**
+     * Returns the number of garbage collections so far.
+     *
+     * @return the total collections across all collectors
+     */
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc
+                : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += gc.getCollectionCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the time spent in garbage collection so far.
+     *
+     * @return the total collection time across all collectors in milliseconds
+     */
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc
+                : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += gc.getCollectionTime();
+        }
+        return millis;
+    }
+
+    /**
+     * Starts the program.
+     *
+     * @param args command line arguments, see the class comment
+     * @throws Exception if a player fails
+     */
+    public static void main(String[] args) throws Exception {
+        int players = 100;
+        double duration = 10;
+        double rampUp = 2;
+        long think = 0;
+        String strategyName = "random";
+        String server = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--players" -> players = Integer.parseInt(args[i + 1]);
+                case "--duration" -> duration = Double.parseDouble(args[i + 1]);
+                case "--ramp-up" -> rampUp = Double.parseDouble(args[i + 1]);
+                case "--think" -> think = Long.parseLong(args[i + 1]);
+                case "--strategy" -> strategyName = args[i + 1];
+                case "--server" -> server = args[i + 1];
+                default -> throw new IllegalArgumentException(
+                        "Unknown option: " + args[i]);
+            }
+        }
+
+        WordDictionary dictionary = WordDictionary.getShared();
+        WordleStrategy strategy;
+        if (strategyName.equals("random")) {
+            strategy = new RandomStrategy(dictionary);
+        } else if (strategyName.equals("tree")) {
+            strategy = DecisionTree.load(FeedbackMatrix.load(dictionary));
+        } else if (strategyName.equals("solver")) {
+            strategy = new WordleSolver(FeedbackMatrix.load(dictionary));
+        } else {
+            throw new IllegalArgumentException("Unknown strategy: "
+                    + strategyName);
+        }
+
+        new WordleLoadTest(players, (long) (duration * 1e9),
+                (long) (rampUp * 1e9), think, strategy, dictionary,
+                server).run();
+    }
+}
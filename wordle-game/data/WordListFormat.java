@@ -1,30 +1,35 @@
-import java.util.Scanner;
 import java.io.PrintWriter;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Removes the quotes and the spaces from the official nyt source code Wordle word list.
- * 
+ * Also writes the binary word list loaded by WordDictionary, so it needs the game classes:
+ * from wordle-game/, run javac -d bin -cp bin data/WordListFormat.java
+ * and then java -cp bin WordListFormat
+ *
  * @author Kergan Sanderson
  */
 public class WordListFormat {
 
+    /** The word list copied from the nyt source code. */
+    private static final String SOURCE_FILE = "data/nyt-wordle-wordlist.csv";
+
     /**
      * Starts the program.
-     * 
+     *
      * @param args command line arguments
      */
     public static void main(String[] args) {
 
-        Scanner input = null;
-
-        // Create the input Scanner from the input file
+        // Read the word list in one pass, which skips the quotes and spaces
+        // and finds where the answers start
+        WordDictionary dictionary = null;
         try {
-            input = new Scanner(new FileInputStream("data/nyt-wordle-wordlist.csv"));
-            input.useDelimiter(",");
-        } catch (FileNotFoundException e) {
+            dictionary = WordDictionary.readCsv(Path.of(SOURCE_FILE));
+        } catch (IOException e) {
             System.out.println("Input file not found.");
             System.exit(1);
         }
@@ -33,41 +38,31 @@ public class WordListFormat {
 
         // Create the PrintWriter to the output file
         try {
-            output = new PrintWriter(new FileOutputStream("data/wordle-wordlist.csv"));
+            output = new PrintWriter(new FileOutputStream(WordDictionary.WORD_LIST_FILE));
         } catch (FileNotFoundException e) {
             System.out.println("Cannot create output file.");
             System.exit(1);
         }
 
-        // Create a temporary string
-        String temp = "";
-
-        // Create a counter for the total number of words
-        int count = 0;
-
-        // Add the first word to the output file, since it doesn't have a space in front of it
-        temp = input.next();
-        output.print(temp.substring(1, temp.length() - 1) + ",");
-        count++;
-
-        temp = input.next();
-
-        // remove space and quotes from around all tokens except the last one
-        while (input.hasNext()) {
-            output.print(temp.substring(2,temp.length() - 1) + ",");
-            count++;
-            temp = input.next();
+        // Write every word, with a comma between each of them
+        for (int i = 0; i < dictionary.size(); i++) {
+            if (i > 0) {
+                output.print(",");
+            }
+            output.print(dictionary.wordAt(i));
         }
+        output.close();
 
-        // Add the last word to the output file, not adding a comma after it
-        output.print(temp.substring(2,temp.length() - 2));
-        count++;
-        
         // Report the total number of words
-        System.out.println("Number of words: " + count);
+        System.out.println("Number of words: " + dictionary.size());
+        System.out.println("Answer index: " + dictionary.getAnswerIndex());
 
-        // Close input Scanner and output PrintWriter to finish the procedure
-        input.close();
-        output.close();
+        // Write the binary word list
+        try {
+            dictionary.writeBinary(Path.of(WordDictionary.BINARY_FILE));
+        } catch (IOException e) {
+            System.out.println("Cannot create binary output file.");
+            System.exit(1);
+        }
     }
 }
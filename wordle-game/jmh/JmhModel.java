@@ -0,0 +1,78 @@
+/**
+ * Gives the JMH benchmarks, which have to be in a named package, access to
+ * the game's classes in the unnamed package.
+ *
+ * @author Kergan Sanderson
+ */
+public final class JmhModel implements benchmarks.Model {
+
+    /** The model the benchmarks play with. */
+    private final Wordle model;
+
+    /** The shared word list. */
+    private final WordDictionary dictionary;
+
+    /**
+     * Creates a model with the shared word list.
+     */
+    public JmhModel() {
+        this.model = new Wordle();
+        this.dictionary = model.getDictionary();
+    }
+
+    @Override
+    public Object loadWordList() {
+        return WordDictionary.load();
+    }
+
+    @Override
+    public Object construct() {
+        return new Wordle();
+    }
+
+    @Override
+    public boolean isValidGuess(String word) {
+        return model.isValidGuess(word);
+    }
+
+    @Override
+    public Object getGuessResults(String guess) {
+        return model.getGuessResults(guess);
+    }
+
+    @Override
+    public void resetGame(String secret) {
+        model.resetGame(secret);
+    }
+
+    @Override
+    public int resetGame() {
+        model.resetGame();
+        return model.getSecretIndex();
+    }
+
+    @Override
+    public int indexOfLetter(char letter) {
+        return Wordle.indexOfLetter(letter);
+    }
+
+    @Override
+    public int size() {
+        return dictionary.size();
+    }
+
+    @Override
+    public int answerCount() {
+        return dictionary.getAnswerCount();
+    }
+
+    @Override
+    public String wordAt(int index) {
+        return dictionary.wordAt(index);
+    }
+
+    @Override
+    public String answerAt(int index) {
+        return dictionary.wordAt(dictionary.getAnswerIndex() + index);
+    }
+}
@@ -0,0 +1,109 @@
+package benchmarks;
+
+/**
+ * The model operations the JMH benchmarks measure. JMH won't generate code
+ * for classes in the unnamed package, and classes in a named package can't
+ * see the game's classes, so the benchmarks reach the game through this
+ * interface. JmhModel, in the unnamed package, implements it, and has only
+ * one implementation, so the calls are inlined like direct ones.
+ *
+ * @author Kergan Sanderson
+ */
+public interface Model {
+
+    /**
+     * Loads the word list from its files, as the first model does.
+     *
+     * @return the dictionary
+     */
+    Object loadWordList();
+
+    /**
+     * Creates a model with the shared word list.
+     *
+     * @return the model
+     */
+    Object construct();
+
+    /**
+     * Determines if a word is in the word list.
+     *
+     * @param word the word to look up
+     * @return true if it is in the word list
+     */
+    boolean isValidGuess(String word);
+
+    /**
+     * Scores a guess against the secret word.
+     *
+     * @param guess the guess
+     * @return the results of the guess
+     */
+    Object getGuessResults(String guess);
+
+    /**
+     * Starts a new game with a chosen secret word.
+     *
+     * @param secret the new secret word
+     */
+    void resetGame(String secret);
+
+    /**
+     * Starts a new game with a random secret word.
+     *
+     * @return the word list index of the new secret word
+     */
+    int resetGame();
+
+    /**
+     * Returns the index of a letter in the alphabet.
+     *
+     * @param letter the letter
+     * @return its index, or -1 if it is not a letter
+     */
+    int indexOfLetter(char letter);
+
+    /**
+     * Returns the number of words in the word list.
+     *
+     * @return the number of words
+     */
+    int size();
+
+    /**
+     * Returns the number of answers in the word list.
+     *
+     * @return the number of answers
+     */
+    int answerCount();
+
+    /**
+     * Returns a word from the word list.
+     *
+     * @param index the index of the word
+     * @return the word
+     */
+    String wordAt(int index);
+
+    /**
+     * Returns an answer from the word list.
+     *
+     * @param index the index of the answer, from 0
+     * @return the answer
+     */
+    String answerAt(int index);
+
+    /**
+     * Loads the model the benchmarks run against.
+     *
+     * @return the model, with the shared word list loaded
+     */
+    static Model load() {
+        try {
+            return (Model) Class.forName("JmhModel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to load JmhModel", e);
+        }
+    }
+}
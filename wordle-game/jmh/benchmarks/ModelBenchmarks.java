@@ -0,0 +1,169 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the hot paths of the Wordle model. Every input comes
+ * from a field that changes on each call, and every result is returned to
+ * JMH, so nothing can be folded into a constant or removed as dead code.
+ *
+ * To run them from wordle-game/, so the word list files are found:
+ *     mvn -B -P jmh package
+ *     java -jar target/benchmarks.jar -prof gc
+ *
+ * The gc profiler reports the bytes allocated per operation as
+ * gc.alloc.rate.norm.
+ *
+ * @author Kergan Sanderson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ModelBenchmarks {
+
+    /** The number of words in each array of inputs, a power of 2. */
+    private static final int INPUTS = 1024;
+
+    /** Secret words with repeated letters. */
+    private static final String[] REPEAT_SECRETS =
+            {"abbey", "geese", "mamma", "eerie", "llama"};
+
+    /** Guesses with repeated letters. */
+    private static final String[] REPEAT_GUESSES = {"babes", "eerie", "mamma",
+            "geese", "lilac", "emcee", "allay", "kebab"};
+
+    /** The model being benchmarked. */
+    private Model model;
+
+    /** Words from the word list. */
+    private String[] hits;
+
+    /** 5 letter words that aren't in the word list. */
+    private String[] misses;
+
+    /** Answers to use as secret words. */
+    private String[] answers;
+
+    /** Counts the calls, to vary the inputs. */
+    private int call;
+
+    /**
+     * Loads the word list and picks the inputs.
+     */
+    @Setup
+    public void setUp() {
+        model = Model.load();
+        hits = new String[INPUTS];
+        misses = new String[INPUTS];
+        answers = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            hits[i] = model.wordAt((i * 7919) % model.size());
+            misses[i] = "zz" + (char) ('a' + i % 26)
+                    + (char) ('a' + i / 26 % 26) + "q";
+            answers[i] = model.answerAt((i * 104729) % model.answerCount());
+        }
+    }
+
+    /**
+     * Loads the word list from its files.
+     *
+     * @return the dictionary
+     */
+    @Benchmark
+    public Object loadWordList() {
+        return model.loadWordList();
+    }
+
+    /**
+     * Creates a model, which picks a secret word from the shared word list.
+     *
+     * @return the model
+     */
+    @Benchmark
+    public Object construct() {
+        return model.construct();
+    }
+
+    /**
+     * Looks up words that are in the word list.
+     *
+     * @return true if the word was found
+     */
+    @Benchmark
+    public boolean isValidGuessHit() {
+        return model.isValidGuess(hits[call++ & (INPUTS - 1)]);
+    }
+
+    /**
+     * Looks up words that aren't in the word list.
+     *
+     * @return true if the word was found
+     */
+    @Benchmark
+    public boolean isValidGuessMiss() {
+        return model.isValidGuess(misses[call++ & (INPUTS - 1)]);
+    }
+
+    /**
+     * Scores guesses, starting a new game every 4 guesses so the game is
+     * never over. The reset is part of the time.
+     *
+     * @return the results of the guess
+     */
+    @Benchmark
+    public Object getGuessResults() {
+        int i = call++;
+        if ((i & 3) == 0) {
+            model.resetGame(answers[(i >>> 2) & (INPUTS - 1)]);
+        }
+        return model.getGuessResults(hits[i & (INPUTS - 1)]);
+    }
+
+    /**
+     * Scores guesses with repeated letters against secret words with
+     * repeated letters, starting a new game every 4 guesses.
+     *
+     * @return the results of the guess
+     */
+    @Benchmark
+    public Object getGuessResultsRepeats() {
+        int i = call++;
+        if ((i & 3) == 0) {
+            model.resetGame(REPEAT_SECRETS[(i >>> 2) % REPEAT_SECRETS.length]);
+        }
+        return model.getGuessResults(REPEAT_GUESSES[i & 7]);
+    }
+
+    /**
+     * Finds the index of each letter in turn.
+     *
+     * @return the index of the letter
+     */
+    @Benchmark
+    public int indexOfLetter() {
+        return model.indexOfLetter((char) ('a' + call++ % 26));
+    }
+
+    /**
+     * Starts a new game with a random secret word.
+     *
+     * @return the word list index of the secret word
+     */
+    @Benchmark
+    public int resetGame() {
+        return model.resetGame();
+    }
+}
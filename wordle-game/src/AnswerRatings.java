@@ -0,0 +1,383 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A difficulty rating for every answer, used to pick secret words of a chosen
+ * difficulty. An answer's rating is the number of guesses the decision tree
+ * takes to find it, plus a little for each of its neighbours: the other
+ * answers that would get every letter but one green against it, like the
+ * words in "hatch, latch, match, patch". Those are the answers a player can't
+ * tell apart without spending guesses on them.
+ *
+ * The answers are sorted from easiest to hardest and split into three tiers
+ * of the same size, so drawing an answer from a tier is picking a position in
+ * its range. The ratings are computed on all of the cores and saved next to
+ * the word list, with the word list checksum, so they are only computed again
+ * when the list changes.
+ *
+ * To run it from wordle-game/: java -cp bin AnswerRatings
+ *
+ * @author Kergan Sanderson
+ */
+public class AnswerRatings {
+
+    /** The default location of the saved ratings. */
+    public static final String RATINGS_FILE = "data/wordle-wordlist.ratings";
+
+    /** How much each neighbour adds to an answer's rating, in guesses. */
+    public static final double NEIGHBOUR_WEIGHT = 0.25;
+
+    /** Identifies a file as answer ratings. */
+    private static final int MAGIC = 0x57524154;
+
+    /** The version of the file format, changed whenever the format is. */
+    private static final int VERSION = 1;
+
+    /** The number of bytes before the ratings in the file. */
+    private static final int HEADER_SIZE = 24;
+
+    /**
+     * How hard an answer is compared to the others.
+     */
+    public enum Tier {
+        /** The easiest third of the answers. */
+        EASY,
+        /** The middle third of the answers. */
+        MEDIUM,
+        /** The hardest third of the answers. */
+        HARD
+    }
+
+    /** The word list the ratings are for. */
+    private final WordDictionary dictionary;
+
+    /** The guesses the decision tree takes for each answer, from the answer
+     *  index. */
+    private final int[] guesses;
+
+    /** The number of neighbours of each answer. */
+    private final int[] neighbours;
+
+    /** The word list indices of the answers, easiest first. */
+    private final int[] byDifficulty;
+
+    /** Where each answer is in byDifficulty. */
+    private final int[] rank;
+
+    /** Where each tier starts in byDifficulty, plus one more for the end. */
+    private final int[] tierStart;
+
+    /**
+     * Creates the ratings from the guesses and neighbours of every answer.
+     *
+     * @param dictionary the word list the ratings are for
+     * @param guesses the guesses the tree takes for each answer
+     * @param neighbours the number of neighbours of each answer
+     */
+    private AnswerRatings(WordDictionary dictionary, int[] guesses,
+            int[] neighbours) {
+        this.dictionary = dictionary;
+        this.guesses = guesses;
+        this.neighbours = neighbours;
+
+        // sort by rating, breaking ties by word list order so every run
+        // agrees
+        int answerIndex = dictionary.getAnswerIndex();
+        byDifficulty = IntStream.range(0, guesses.length).boxed()
+                .sorted((a, b) -> {
+                    int compare = Double.compare(rating(a), rating(b));
+                    return compare != 0 ? compare : Integer.compare(a, b);
+                })
+                .mapToInt(a -> answerIndex + a).toArray();
+        rank = new int[guesses.length];
+        for (int r = 0; r < byDifficulty.length; r++) {
+            rank[byDifficulty[r] - answerIndex] = r;
+        }
+
+        Tier[] tiers = Tier.values();
+        tierStart = new int[tiers.length + 1];
+        for (int t = 0; t <= tiers.length; t++) {
+            tierStart[t] = (int) ((long) guesses.length * t / tiers.length);
+        }
+    }
+
+    /**
+     * Loads the ratings for a word list from the default file, computing and
+     * saving them first if the file is missing or out of date.
+     *
+     * @param dictionary the word list
+     * @return the ratings
+     */
+    public static AnswerRatings load(WordDictionary dictionary) {
+        return load(dictionary, Path.of(RATINGS_FILE));
+    }
+
+    /**
+     * Loads the ratings for a word list from a file, computing and saving
+     * them first if the file is missing or out of date. Computing them needs
+     * the feedback matrix and the decision tree, which are loaded or built
+     * too.
+     *
+     * @param dictionary the word list
+     * @param file the file the ratings are saved in
+     * @return the ratings
+     */
+    public static AnswerRatings load(WordDictionary dictionary, Path file) {
+        try {
+            return read(file, dictionary);
+        } catch (IOException e) {
+            // missing or out of date, so compute them below
+        }
+        DecisionTree tree = DecisionTree.load(FeedbackMatrix.load(dictionary));
+        AnswerRatings ratings = compute(dictionary, tree);
+        try {
+            ratings.save(file);
+        } catch (IOException e) {
+            System.out.println("Unable to save " + file);
+        }
+        return ratings;
+    }
+
+    /**
+     * Computes the ratings of every answer, splitting the answers across all
+     * of the cores.
+     *
+     * @param dictionary the word list
+     * @param tree the strategy the guesses are counted with
+     * @return the ratings
+     * @throws IllegalArgumentException if the words are not 5 letters long
+     */
+    public static AnswerRatings compute(WordDictionary dictionary,
+            DecisionTree tree) {
+        dictionary.requireClassicLength();
+        int answers = dictionary.getAnswerCount();
+        int answerIndex = dictionary.getAnswerIndex();
+        int[] guesses = new int[answers];
+        int[] neighbours = new int[answers];
+
+        IntStream.range(0, answers).parallel().forEach(a -> {
+            // an answer the tree can't find is as hard as running out
+            int taken = tree.guessesFor(answerIndex + a);
+            guesses[a] = taken == -1 ? Wordle.GUESSES_IN_GAME + 1 : taken;
+
+            long code = dictionary.codeAt(answerIndex + a);
+            int count = 0;
+            for (int b = 0; b < answers; b++) {
+                if (lettersDifferent(code, dictionary.codeAt(answerIndex + b),
+                        dictionary.getWordLength()) == 1) {
+                    count++;
+                }
+            }
+            neighbours[a] = count;
+        });
+        return new AnswerRatings(dictionary, guesses, neighbours);
+    }
+
+    /**
+     * Counts the positions where two words have different letters.
+     *
+     * @param first the first packed word
+     * @param second the second packed word
+     * @param length the number of letters in each word
+     * @return the number of positions that differ
+     */
+    private static int lettersDifferent(long first, long second, int length) {
+        long difference = first ^ second;
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (((difference >>> (5 * i)) & 31) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads saved ratings, checking they are for the current word list.
+     *
+     * @param file the saved ratings
+     * @param dictionary the word list
+     * @return the ratings
+     * @throws IOException if the file can't be read or is out of date
+     */
+    public static AnswerRatings read(Path file, WordDictionary dictionary)
+            throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+        int answers = dictionary.getAnswerCount();
+        if (mapped.capacity() != HEADER_SIZE + 2L * Integer.BYTES * answers
+                || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION
+                || mapped.getInt(8) != answers
+                || mapped.getLong(16) != dictionary.checksum()) {
+            throw new IOException(file + " is out of date");
+        }
+        int[] guesses = new int[answers];
+        int[] neighbours = new int[answers];
+        mapped.position(HEADER_SIZE);
+        mapped.asIntBuffer().get(guesses).get(neighbours);
+        return new AnswerRatings(dictionary, guesses, neighbours);
+    }
+
+    /**
+     * Saves the ratings, writing to a temporary file first so that partly
+     * written ratings are never read.
+     *
+     * @param file the file to save to
+     * @throws IOException if the file can't be written
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE
+                + 2 * Integer.BYTES * guesses.length);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(guesses.length);
+        buffer.putInt(0);
+        buffer.putLong(dictionary.checksum());
+        for (int count : guesses) {
+            buffer.putInt(count);
+        }
+        for (int count : neighbours) {
+            buffer.putInt(count);
+        }
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the rating of an answer.
+     *
+     * @param answer the answer, counting from the answer index
+     * @return the guesses the tree takes plus the weight of its neighbours
+     */
+    private double rating(int answer) {
+        return guesses[answer] + NEIGHBOUR_WEIGHT * neighbours[answer];
+    }
+
+    /**
+     * Returns the rating of an answer, where higher is harder.
+     *
+     * @param index the word list index of the answer
+     * @return the rating of the answer
+     */
+    public double getRating(int index) {
+        return rating(index - dictionary.getAnswerIndex());
+    }
+
+    /**
+     * Returns the guesses the decision tree takes to find an answer.
+     *
+     * @param index the word list index of the answer
+     * @return the number of guesses
+     */
+    public int getGuesses(int index) {
+        return guesses[index - dictionary.getAnswerIndex()];
+    }
+
+    /**
+     * Returns the number of answers that differ from an answer by one letter.
+     *
+     * @param index the word list index of the answer
+     * @return the number of neighbours
+     */
+    public int getNeighbours(int index) {
+        return neighbours[index - dictionary.getAnswerIndex()];
+    }
+
+    /**
+     * Returns the number of answers in a tier.
+     *
+     * @param tier the tier
+     * @return the number of answers in it
+     */
+    public int getTierSize(Tier tier) {
+        return tierStart[tier.ordinal() + 1] - tierStart[tier.ordinal()];
+    }
+
+    /**
+     * Returns an answer from a tier.
+     *
+     * @param tier the tier
+     * @param position the position in the tier, from 0 for its easiest
+     * @return the word list index of the answer
+     */
+    public int getAnswer(Tier tier, int position) {
+        return byDifficulty[tierStart[tier.ordinal()] + position];
+    }
+
+    /**
+     * Returns the tier an answer is in.
+     *
+     * @param index the word list index of the answer
+     * @return the tier of the answer
+     */
+    public Tier getTier(int index) {
+        int position = rank[index - dictionary.getAnswerIndex()];
+        Tier[] tiers = Tier.values();
+        int t = 0;
+        while (position >= tierStart[t + 1]) {
+            t++;
+        }
+        return tiers[t];
+    }
+
+    /**
+     * Getter method for the dictionary.
+     *
+     * @return the word list the ratings are for
+     */
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Starts the program, loading or computing the ratings and printing the
+     * easiest and hardest answers of each tier.
+     *
+     * @param args command line arguments, which are not used
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        AnswerRatings ratings = load(WordDictionary.getShared());
+        System.out.printf("Ratings ready in %.2f s%n",
+                (System.nanoTime() - start) / 1e9);
+        WordDictionary dictionary = ratings.getDictionary();
+        for (Tier tier : Tier.values()) {
+            int size = ratings.getTierSize(tier);
+            int easiest = ratings.getAnswer(tier, 0);
+            int hardest = ratings.getAnswer(tier, size - 1);
+            System.out.printf("%-6s %4d answers, %s (%.2f) to %s (%.2f)%n",
+                    tier, size, dictionary.wordAt(easiest),
+                    ratings.getRating(easiest), dictionary.wordAt(hardest),
+                    ratings.getRating(hardest));
+        }
+        int[] hardest = new int[10];
+        Arrays.setAll(hardest, i -> ratings.getAnswer(Tier.HARD,
+                ratings.getTierSize(Tier.HARD) - 1 - i));
+        System.out.print("Hardest:");
+        for (int index : hardest) {
+            System.out.print(" " + dictionary.wordAt(index));
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,116 @@
+import java.util.Arrays;
+
+/**
+ * The answers that are still possible in one game, narrowed down after every
+ * guess using a CandidateIndex. Each guess only costs a few dozen bitset
+ * operations, and the number of candidates is kept up to date so it can be
+ * read at any time.
+ *
+ * @author Kergan Sanderson
+ */
+public class CandidateFilter {
+
+    /** The index used to narrow down the candidates. */
+    private final CandidateIndex index;
+
+    /** The remaining candidates, one bit per answer. */
+    private final long[] candidates;
+
+    /** The number of remaining candidates. */
+    private int count;
+
+    /**
+     * Creates the filter with every answer still possible.
+     *
+     * @param index the index used to narrow down the candidates
+     */
+    public CandidateFilter(CandidateIndex index) {
+        this.index = index;
+        this.candidates = index.allAnswers();
+        this.count = index.getDictionary().getAnswerCount();
+    }
+
+    /**
+     * Narrows down the candidates using the results of a guess.
+     *
+     * @param result the results of the guess
+     */
+    public void apply(GuessResult result) {
+        apply((int) result.getCode(), result.getPattern());
+    }
+
+    /**
+     * Narrows down the candidates using the pattern a guess got.
+     *
+     * @param guess the packed guess
+     * @param pattern the pattern code the guess got
+     */
+    public void apply(int guess, int pattern) {
+        index.narrow(candidates, guess, pattern);
+        count = 0;
+        for (long word : candidates) {
+            count += Long.bitCount(word);
+        }
+    }
+
+    /**
+     * Makes every answer possible again, for a new game.
+     */
+    public void reset() {
+        long[] all = index.allAnswers();
+        System.arraycopy(all, 0, candidates, 0, all.length);
+        count = index.getDictionary().getAnswerCount();
+    }
+
+    /**
+     * Getter method for the count.
+     *
+     * @return the number of answers that are still possible
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Determines if an answer is still possible.
+     *
+     * @param wordIndex the word list index of the answer
+     * @return true if the answer fits every guess so far
+     */
+    public boolean isCandidate(int wordIndex) {
+        int bit = wordIndex - index.getDictionary().getAnswerIndex();
+        if (bit < 0 || wordIndex >= index.getDictionary().size()) {
+            return false;
+        }
+        return (candidates[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Returns the answers that are still possible.
+     *
+     * @return the word list indices of the candidates, in order
+     */
+    public int[] getCandidates() {
+        int[] found = new int[count];
+        int answerIndex = index.getDictionary().getAnswerIndex();
+        int n = 0;
+        for (int w = 0; w < candidates.length; w++) {
+            long word = candidates[w];
+            while (word != 0) {
+                found[n++] = answerIndex + (w << 6)
+                        + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns a copy of the remaining candidates as a bitset.
+     *
+     * @return one bit per answer, set if the answer is still possible
+     */
+    public long[] toBitset() {
+        return Arrays.copyOf(candidates, candidates.length);
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Bitsets over the possible answers, used to narrow down the answers that fit
+ * the results of a game without scoring every answer again. Bit i of a bitset
+ * stands for the answer at word list index (answer index + i). The index never
+ * changes after it is built, so one index can be shared by every game.
+ *
+ * @author Kergan Sanderson
+ */
+public class CandidateIndex {
+
+    /** The most copies of one letter a word can have. */
+    private static final int MAX_COPIES = Wordle.LETTERS_IN_WORD;
+
+    /** The word list the index was built from. */
+    private final WordDictionary dictionary;
+
+    /** The number of longs in each bitset. */
+    private final int length;
+
+    /** Every answer. */
+    private final long[] all;
+
+    /** The answers with each letter at each position, by position then letter. */
+    private final long[][][] letterAt;
+
+    /** The answers with at least k copies of each letter, by letter then k. */
+    private final long[][][] atLeast;
+
+    /**
+     * Builds the index over the answers in a word list.
+     *
+     * @param dictionary the word list
+     */
+    public CandidateIndex(WordDictionary dictionary) {
+        dictionary.requireClassicLength();
+        this.dictionary = dictionary;
+        int answers = dictionary.getAnswerCount();
+        this.length = (answers + 63) >>> 6;
+        int alphabet = Wordle.THE_ALPHABET.length;
+
+        all = new long[length];
+        letterAt = new long[Wordle.LETTERS_IN_WORD][alphabet][length];
+        atLeast = new long[alphabet][MAX_COPIES + 2][length];
+
+        for (int a = 0; a < answers; a++) {
+            int code = (int) dictionary.codeAt(dictionary.getAnswerIndex() + a);
+            int word = a >>> 6;
+            long bit = 1L << a;
+            all[word] |= bit;
+
+            int[] copies = new int[alphabet];
+            for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+                int letter = (code >>> (5 * i)) & 31;
+                letterAt[i][letter][word] |= bit;
+                copies[letter]++;
+            }
+            for (int letter = 0; letter < alphabet; letter++) {
+                for (int k = 0; k <= copies[letter]; k++) {
+                    atLeast[letter][k][word] |= bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * Narrows a set of candidates to the ones that would give a pattern for a
+     * guess. A green letter keeps only answers with that letter there, any
+     * other color removes answers with that letter there, and the greens and
+     * yellows of each letter give the fewest copies of it the answer can
+     * have. A gray copy of a letter means there are no more copies than that.
+     *
+     * @param candidates the candidates to narrow, which are changed in place
+     * @param guess the packed guess
+     * @param pattern the pattern code the guess got
+     */
+    public void narrow(long[] candidates, int guess, int pattern) {
+        // the color of each letter, 2 bits per position
+        int colors = 0;
+
+        int digits = pattern;
+        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+            int letter = (guess >>> (5 * i)) & 31;
+            int color = digits % 3;
+            digits /= 3;
+            colors |= color << (2 * i);
+            if (color == 2) {
+                and(candidates, letterAt[i][letter]);
+            } else {
+                andNot(candidates, letterAt[i][letter]);
+            }
+        }
+
+        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+            int letter = (guess >>> (5 * i)) & 31;
+
+            // count the copies of each letter once, at its first position
+            boolean seen = false;
+            for (int j = 0; j < i && !seen; j++) {
+                seen = ((guess >>> (5 * j)) & 31) == letter;
+            }
+            if (seen) {
+                continue;
+            }
+
+            int copies = 0;
+            boolean gray = false;
+            for (int j = i; j < Wordle.LETTERS_IN_WORD; j++) {
+                if (((guess >>> (5 * j)) & 31) == letter) {
+                    if (((colors >>> (2 * j)) & 3) == 0) {
+                        gray = true;
+                    } else {
+                        copies++;
+                    }
+                }
+            }
+            if (copies > 0) {
+                and(candidates, atLeast[letter][copies]);
+            }
+            if (gray) {
+                andNot(candidates, atLeast[letter][copies + 1]);
+            }
+        }
+    }
+
+    /**
+     * Intersects a bitset with another one.
+     *
+     * @param target the bitset to change
+     * @param mask the bitset to intersect with
+     */
+    private void and(long[] target, long[] mask) {
+        for (int w = 0; w < length; w++) {
+            target[w] &= mask[w];
+        }
+    }
+
+    /**
+     * Removes the bits of one bitset from another.
+     *
+     * @param target the bitset to change
+     * @param mask the bits to remove
+     */
+    private void andNot(long[] target, long[] mask) {
+        for (int w = 0; w < length; w++) {
+            target[w] &= ~mask[w];
+        }
+    }
+
+    /**
+     * Returns a new bitset holding every answer.
+     *
+     * @return a copy of the bitset of all answers
+     */
+    public long[] allAnswers() {
+        return all.clone();
+    }
+
+    /**
+     * Getter method for the dictionary.
+     *
+     * @return the word list the index was built from
+     */
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+}
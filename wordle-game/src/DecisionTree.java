@@ -0,0 +1,488 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A complete strategy for Wordle worked out ahead of time: the opening guess,
+ * then the guess to make after each pattern, and so on until every answer is
+ * found. Each guess is the one WordleSolver would pick for the answers still
+ * possible at that point. Getting a hint is a walk down the tree instead of a
+ * solver run.
+ *
+ * The tree is stored as flat arrays. Node 0 is the root, and the edges of
+ * node n (the pattern and the child node for each pattern) are at indices
+ * edgeStart[n] up to edgeStart[n + 1], sorted by pattern. The file holds a
+ * header (magic number, version, word list checksum, node count, and edge
+ * count) followed by the arrays.
+ *
+ * To run it from wordle-game/: java -cp bin DecisionTree [--rebuild]
+ *
+ * @author Kergan Sanderson
+ */
+public class DecisionTree implements WordleStrategy {
+
+    /** The default location of the saved tree. */
+    public static final String TREE_FILE = "data/wordle-wordlist.tree";
+
+    /** Identifies a file as a decision tree. */
+    private static final int MAGIC = 0x57545245;
+
+    /** The version of the file format, changed whenever the format is. */
+    private static final int VERSION = 1;
+
+    /** The number of bytes before the arrays in the file. */
+    private static final int HEADER_SIZE = 24;
+
+    /** The word list the tree was built from. */
+    private final WordDictionary dictionary;
+
+    /** The word list index of the guess at each node. */
+    private final int[] nodeGuess;
+
+    /** Where the edges of each node start, plus one more for the end. */
+    private final int[] edgeStart;
+
+    /** The pattern each edge is followed for. */
+    private final byte[] edgePattern;
+
+    /** The node each edge leads to. */
+    private final int[] edgeChild;
+
+    /**
+     * Creates the tree from its arrays.
+     *
+     * @param dictionary the word list the tree was built from
+     * @param nodeGuess the guess at each node
+     * @param edgeStart where the edges of each node start
+     * @param edgePattern the pattern of each edge
+     * @param edgeChild the child of each edge
+     */
+    private DecisionTree(WordDictionary dictionary, int[] nodeGuess,
+            int[] edgeStart, byte[] edgePattern, int[] edgeChild) {
+        this.dictionary = dictionary;
+        this.nodeGuess = nodeGuess;
+        this.edgeStart = edgeStart;
+        this.edgePattern = edgePattern;
+        this.edgeChild = edgeChild;
+    }
+
+    /**
+     * Loads the tree for a word list from the default file, building and
+     * saving it first if the file is missing or out of date.
+     *
+     * @param matrix the feedback matrix for the word list
+     * @return the tree for the word list
+     */
+    public static DecisionTree load(FeedbackMatrix matrix) {
+        Path file = Path.of(TREE_FILE);
+        try {
+            return read(file, matrix.getDictionary());
+        } catch (IOException e) {
+            // missing or out of date, so build it below
+        }
+        DecisionTree tree = build(new WordleSolver(matrix), matrix);
+        try {
+            tree.save(file);
+        } catch (IOException e) {
+            System.out.println("Unable to save " + file);
+        }
+        return tree;
+    }
+
+    /**
+     * Builds the tree, working out the subtrees for different patterns in
+     * parallel since they don't depend on each other.
+     *
+     * @param solver the solver that picks the guess at each node
+     * @param matrix the feedback matrix for the word list
+     * @return the tree
+     */
+    public static DecisionTree build(WordleSolver solver, FeedbackMatrix matrix) {
+        WordDictionary dictionary = matrix.getDictionary();
+        int[] answers = new int[dictionary.getAnswerCount()];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = dictionary.getAnswerIndex() + i;
+        }
+        Node root = ForkJoinPool.commonPool().invoke(
+                new NodeTask(solver, matrix, answers));
+
+        // lay the nodes out in preorder
+        List<Node> nodes = new ArrayList<>();
+        int edges = number(root, nodes);
+        int[] nodeGuess = new int[nodes.size()];
+        int[] edgeStart = new int[nodes.size() + 1];
+        byte[] edgePattern = new byte[edges];
+        int[] edgeChild = new int[edges];
+        int edge = 0;
+        for (int n = 0; n < nodes.size(); n++) {
+            Node node = nodes.get(n);
+            nodeGuess[n] = node.guess;
+            edgeStart[n] = edge;
+            for (int i = 0; i < node.children.length; i++) {
+                edgePattern[edge] = (byte) node.patterns[i];
+                edgeChild[edge] = node.children[i].number;
+                edge++;
+            }
+        }
+        edgeStart[nodes.size()] = edge;
+        return new DecisionTree(dictionary, nodeGuess, edgeStart, edgePattern,
+                edgeChild);
+    }
+
+    /**
+     * Numbers a subtree in preorder, adding its nodes to a list.
+     *
+     * @param node the root of the subtree
+     * @param nodes the list to add the nodes to
+     * @return the number of edges in the subtree
+     */
+    private static int number(Node node, List<Node> nodes) {
+        node.number = nodes.size();
+        nodes.add(node);
+        int edges = node.children.length;
+        for (Node child : node.children) {
+            edges += number(child, nodes);
+        }
+        return edges;
+    }
+
+    /**
+     * Reads a saved tree, checking that it was built from the word list.
+     *
+     * @param file the saved tree
+     * @param dictionary the word list
+     * @return the tree
+     * @throws IOException if the file can't be read or is out of date
+     */
+    public static DecisionTree read(Path file, WordDictionary dictionary)
+            throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+        if (mapped.capacity() < HEADER_SIZE || mapped.getInt(0) != MAGIC
+                || mapped.getInt(4) != VERSION
+                || mapped.getLong(8) != dictionary.checksum()) {
+            throw new IOException(file + " is out of date");
+        }
+        int nodes = mapped.getInt(16);
+        int edges = mapped.getInt(20);
+        long size = HEADER_SIZE + Integer.BYTES * (2L * nodes + 1)
+                + (long) (Integer.BYTES + 1) * edges;
+        if (nodes < 1 || edges < 0 || mapped.capacity() != size) {
+            throw new IOException(file + " has the wrong size");
+        }
+
+        int[] nodeGuess = new int[nodes];
+        int[] edgeStart = new int[nodes + 1];
+        byte[] edgePattern = new byte[edges];
+        int[] edgeChild = new int[edges];
+        mapped.position(HEADER_SIZE);
+        mapped.asIntBuffer().get(nodeGuess).get(edgeStart);
+        mapped.position(HEADER_SIZE + Integer.BYTES * (2 * nodes + 1));
+        mapped.get(edgePattern);
+        mapped.asIntBuffer().get(edgeChild);
+        return new DecisionTree(dictionary, nodeGuess, edgeStart, edgePattern,
+                edgeChild);
+    }
+
+    /**
+     * Saves the tree, writing to a temporary file first so that a partly
+     * written tree is never read.
+     *
+     * @param file the file to save to
+     * @throws IOException if the file can't be written
+     */
+    public void save(Path file) throws IOException {
+        int nodes = nodeGuess.length;
+        int edges = edgeChild.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE
+                + Integer.BYTES * (2 * nodes + 1) + (Integer.BYTES + 1) * edges);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(dictionary.checksum());
+        buffer.putInt(nodes);
+        buffer.putInt(edges);
+        for (int guess : nodeGuess) {
+            buffer.putInt(guess);
+        }
+        for (int start : edgeStart) {
+            buffer.putInt(start);
+        }
+        buffer.put(edgePattern);
+        for (int child : edgeChild) {
+            buffer.putInt(child);
+        }
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Looks up the next guess by following the results so far down the tree.
+     *
+     * @param history the results of the guesses made so far, in order
+     * @return the next guess, or null if the guesses so far left the tree
+     */
+    @Override
+    public String nextGuess(List<GuessResult> history) {
+        int node = 0;
+        for (GuessResult result : history) {
+            if (result.getCode() != dictionary.codeAt(nodeGuess[node])) {
+                return null;
+            }
+            node = child(node, result.getPattern());
+            if (node == -1) {
+                return null;
+            }
+        }
+        return dictionary.wordAt(nodeGuess[node]);
+    }
+
+    /**
+     * Works out how many guesses the tree takes to find an answer, without
+     * playing a game.
+     *
+     * @param answer the word list index of the answer
+     * @return the number of guesses, or -1 if the tree doesn't find it
+     */
+    public int guessesFor(int answer) {
+        int answerCode = (int) dictionary.codeAt(answer);
+        int node = 0;
+        for (int guesses = 1; node != -1; guesses++) {
+            if (nodeGuess[node] == answer) {
+                return guesses;
+            }
+            int pattern = WordleScorer.score(
+                    (int) dictionary.codeAt(nodeGuess[node]), answerCode);
+            node = child(node, pattern);
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the child of a node for a pattern.
+     *
+     * @param node the node
+     * @param pattern the pattern the guess at the node got
+     * @return the child node, or -1 if there is none
+     */
+    private int child(int node, int pattern) {
+        int low = edgeStart[node];
+        int high = edgeStart[node + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int found = edgePattern[middle] & 0xFF;
+            if (found < pattern) {
+                low = middle + 1;
+            } else if (found > pattern) {
+                high = middle - 1;
+            } else {
+                return edgeChild[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Getter method for the node count.
+     *
+     * @return the number of nodes in the tree
+     */
+    public int getNodeCount() {
+        return nodeGuess.length;
+    }
+
+    /**
+     * Replays every answer through Wordle.getGuessResults, following the tree,
+     * and prints how many guesses each took.
+     *
+     * @return the number of answers the tree failed to find in time
+     */
+    public int verify() {
+        int[] guessCounts = new int[Wordle.GUESSES_IN_GAME + 1];
+        List<String> failures = new ArrayList<>();
+        int totalGuesses = 0;
+        Wordle model = new Wordle(dictionary);
+        for (int a = dictionary.getAnswerIndex(); a < dictionary.size(); a++) {
+            String secret = dictionary.wordAt(a);
+            model.resetGame(secret);
+            List<GuessResult> history = new ArrayList<>();
+            while (!model.isGameOver()) {
+                String guess = nextGuess(history);
+                if (guess == null) {
+                    break;
+                }
+                history.add(model.getGuessResults(guess));
+            }
+            if (model.getHasGuessedSecretWord()) {
+                guessCounts[history.size()]++;
+                totalGuesses += history.size();
+            } else {
+                failures.add(secret);
+            }
+        }
+
+        int answers = dictionary.getAnswerCount();
+        System.out.println("Guesses  Answers");
+        for (int i = 1; i <= Wordle.GUESSES_IN_GAME; i++) {
+            System.out.printf("%7d  %7d%n", i, guessCounts[i]);
+        }
+        System.out.println("Failed: " + failures.size() + " " + failures);
+        System.out.printf("Average guesses: %.4f over %d answers%n",
+                (double) totalGuesses / (answers - failures.size()), answers);
+        return failures.size();
+    }
+
+    /**
+     * A node of the tree while it is being built.
+     */
+    private static final class Node {
+
+        /** The word list index of the guess at this node. */
+        private final int guess;
+
+        /** The pattern for each child, in increasing order. */
+        private final int[] patterns;
+
+        /** The child for each pattern. */
+        private final Node[] children;
+
+        /** The position of this node in preorder. */
+        private int number;
+
+        /**
+         * Creates the node.
+         *
+         * @param guess the guess at this node
+         * @param patterns the pattern for each child
+         * @param children the child for each pattern
+         */
+        private Node(int guess, int[] patterns, Node[] children) {
+            this.guess = guess;
+            this.patterns = patterns;
+            this.children = children;
+        }
+    }
+
+    /**
+     * Builds the subtree for a set of candidates.
+     */
+    private static final class NodeTask extends RecursiveTask<Node> {
+
+        /** Tasks are never serialized, but RecursiveTask is Serializable. */
+        private static final long serialVersionUID = 1L;
+
+        /** The solver that picks the guess at each node. */
+        private final transient WordleSolver solver;
+
+        /** The feedback matrix for the word list. */
+        private final transient FeedbackMatrix matrix;
+
+        /** The word list indices of the answers still possible. */
+        private final int[] candidates;
+
+        /**
+         * Creates the task.
+         *
+         * @param solver the solver that picks the guess at each node
+         * @param matrix the feedback matrix for the word list
+         * @param candidates the answers still possible
+         */
+        private NodeTask(WordleSolver solver, FeedbackMatrix matrix,
+                int[] candidates) {
+            this.solver = solver;
+            this.matrix = matrix;
+            this.candidates = candidates;
+        }
+
+        @Override
+        protected Node compute() {
+            int guess = solver.bestGuess(candidates);
+
+            // split the candidates up by the pattern they give the guess
+            int[] sizes = new int[WordleScorer.NUMBER_OF_PATTERNS];
+            for (int c : candidates) {
+                sizes[matrix.getPattern(guess, c)]++;
+            }
+            sizes[WordleScorer.ALL_GREEN] = 0;
+            int childCount = 0;
+            int[][] buckets = new int[WordleScorer.NUMBER_OF_PATTERNS][];
+            for (int p = 0; p < WordleScorer.NUMBER_OF_PATTERNS; p++) {
+                if (sizes[p] > 0) {
+                    buckets[p] = new int[sizes[p]];
+                    sizes[p] = 0;
+                    childCount++;
+                }
+            }
+            for (int c : candidates) {
+                int p = matrix.getPattern(guess, c);
+                if (buckets[p] != null) {
+                    buckets[p][sizes[p]++] = c;
+                }
+            }
+
+            // build the subtree for each pattern in parallel
+            int[] patterns = new int[childCount];
+            NodeTask[] tasks = new NodeTask[childCount];
+            int n = 0;
+            for (int p = 0; p < WordleScorer.NUMBER_OF_PATTERNS; p++) {
+                if (buckets[p] != null) {
+                    patterns[n] = p;
+                    tasks[n] = new NodeTask(solver, matrix, buckets[p]);
+                    n++;
+                }
+            }
+            invokeAll(tasks);
+
+            Node[] children = new Node[childCount];
+            for (int i = 0; i < childCount; i++) {
+                children[i] = tasks[i].join();
+            }
+            return new Node(guess, patterns, children);
+        }
+    }
+
+    /**
+     * Starts the program, loading or building the tree and verifying it.
+     *
+     * @param args command line arguments, --rebuild to build the tree even if
+     *             a saved one is up to date
+     * @throws IOException if the rebuilt tree can't be saved
+     */
+    public static void main(String[] args) throws IOException {
+        FeedbackMatrix matrix = FeedbackMatrix.load(WordDictionary.getShared());
+        long start = System.nanoTime();
+        DecisionTree tree;
+        if (args.length > 0 && args[0].equals("--rebuild")) {
+            tree = build(new WordleSolver(matrix), matrix);
+            tree.save(Path.of(TREE_FILE));
+        } else {
+            tree = load(matrix);
+        }
+        System.out.printf("%d nodes ready in %.2f s%n", tree.getNodeCount(),
+                (System.nanoTime() - start) / 1e9);
+        if (tree.verify() > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.Arrays;
+
+/**
+ * An adversarial game of Wordle that never commits to a secret word. After
+ * each guess, the answers still possible are split up by the pattern they
+ * would give, and the largest group is kept, so the player gets as little
+ * information as possible. The game is won once only the guess itself is left.
+ *
+ * @author Kergan Sanderson
+ */
+public final class EvilWordle extends Wordle {
+
+    /** The packed codes of the answers still possible. */
+    private final int[] candidates;
+
+    /** The number of answers still possible, at the start of candidates. */
+    private int candidateCount;
+
+    /** The patterns of the last guess against each candidate. */
+    private final byte[] patterns;
+
+    /** The number of candidates giving each pattern for the last guess. */
+    private final int[] bucketSizes;
+
+    /**
+     * Creates the game with the shared word list.
+     */
+    public EvilWordle() {
+        this(WordDictionary.getShared());
+    }
+
+    /**
+     * Creates the game with the given word list.
+     *
+     * @param dictionary the word list to play with
+     * @throws IllegalArgumentException if the words are not 5 letters long
+     */
+    public EvilWordle(WordDictionary dictionary) {
+        super(dictionary);
+        dictionary.requireClassicLength();
+        candidates = new int[dictionary.getAnswerCount()];
+        patterns = new byte[dictionary.getAnswerCount()];
+        bucketSizes = new int[WordleScorer.NUMBER_OF_PATTERNS];
+        resetCandidates();
+    }
+
+    /**
+     * Makes every answer possible again.
+     */
+    private void resetCandidates() {
+        WordDictionary dictionary = getDictionary();
+        candidateCount = dictionary.getAnswerCount();
+        for (int i = 0; i < candidateCount; i++) {
+            candidates[i] = (int) dictionary.codeAt(
+                    dictionary.getAnswerIndex() + i);
+        }
+    }
+
+    /**
+     * Splits the candidates up by the pattern they give the guess and keeps
+     * the largest group. Ties go to the lowest pattern code, so the all green
+     * pattern is only kept when it is the only group left. Nothing is
+     * allocated.
+     *
+     * @param guessCode the packed guess
+     * @return the pattern code of the group that was kept
+     */
+    @Override
+    protected int scoreGuess(long guessCode) {
+        // count the candidates giving each pattern
+        WordleScorer.scoreAll((int) guessCode, candidates, candidateCount,
+                patterns);
+        for (int i = 0; i < candidateCount; i++) {
+            bucketSizes[patterns[i] & 0xFF]++;
+        }
+
+        // pick the largest group and clear the counts for next time
+        int best = 0;
+        for (int pattern = 0; pattern < WordleScorer.NUMBER_OF_PATTERNS;
+                pattern++) {
+            if (bucketSizes[pattern] > bucketSizes[best]) {
+                best = pattern;
+            }
+        }
+        Arrays.fill(bucketSizes, 0);
+
+        // the group that was kept becomes the new candidates
+        int kept = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            if ((patterns[i] & 0xFF) == best) {
+                candidates[kept++] = candidates[i];
+            }
+        }
+        candidateCount = kept;
+        return best;
+    }
+
+    /**
+     * Returns a secret word that fits every guess so far. Once the game is
+     * over, this is the word the player was trying to find.
+     *
+     * @return one of the answers still possible
+     */
+    @Override
+    public String getSecretWord() {
+        return unpackWord(candidates[0]);
+    }
+
+    /**
+     * Getter method for the candidate count.
+     *
+     * @return the number of answers still possible
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Resets the game so every answer is possible again.
+     */
+    @Override
+    public void resetGame() {
+        super.resetGame();
+        resetCandidates();
+    }
+
+    /**
+     * Resets the game so every answer is possible again. Evil Wordle never
+     * has a fixed secret word, so the secret is only checked, not kept.
+     *
+     * @param secret a word from the word list
+     * @throws IllegalArgumentException if the word is not in the word list
+     */
+    @Override
+    public void resetGame(String secret) {
+        super.resetGame(secret);
+        resetCandidates();
+    }
+}
@@ -0,0 +1,217 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * A table of the pattern every guess gets against every possible answer, so
+ * that solvers can look up feedback instead of scoring it. The table is
+ * computed once, saved next to the word list, and memory mapped on later runs.
+ *
+ * The file starts with a header (magic number, version, number of guesses,
+ * number of answers, and the checksum of the word list) followed by one byte
+ * per guess and answer, ordered by guess.
+ *
+ * @author Kergan Sanderson
+ */
+public class FeedbackMatrix {
+
+    /** The default location of the saved matrix. */
+    public static final String MATRIX_FILE = "data/wordle-wordlist.matrix";
+
+    /** Identifies a file as a feedback matrix. */
+    private static final int MAGIC = 0x574D4154;
+
+    /** The version of the file format, changed whenever the format is. */
+    private static final int VERSION = 1;
+
+    /** The number of bytes before the first pattern in the file. */
+    private static final int HEADER_SIZE = 24;
+
+    /** The word list the matrix was computed from. */
+    private final WordDictionary dictionary;
+
+    /** The patterns, one byte per guess and answer. */
+    private final ByteBuffer patterns;
+
+    /** The number of answers, which is the length of each row. */
+    private final int answerCount;
+
+    /** Index of the first of the answers in the word list. */
+    private final int answerIndex;
+
+    /**
+     * Creates the matrix from its patterns.
+     *
+     * @param dictionary the word list the matrix was computed from
+     * @param patterns the patterns, one byte per guess and answer
+     */
+    private FeedbackMatrix(WordDictionary dictionary, ByteBuffer patterns) {
+        this.dictionary = dictionary;
+        this.patterns = patterns;
+        this.answerCount = dictionary.getAnswerCount();
+        this.answerIndex = dictionary.getAnswerIndex();
+    }
+
+    /**
+     * Loads the matrix for a word list from the default file, computing and
+     * saving it first if the file is missing or out of date.
+     *
+     * @param dictionary the word list
+     * @return the matrix for the word list
+     */
+    public static FeedbackMatrix load(WordDictionary dictionary) {
+        return load(dictionary, Path.of(MATRIX_FILE));
+    }
+
+    /**
+     * Loads the matrix for a word list from a file, computing and saving it
+     * first if the file is missing or out of date.
+     *
+     * @param dictionary the word list
+     * @param file the file the matrix is saved in
+     * @return the matrix for the word list
+     */
+    public static FeedbackMatrix load(WordDictionary dictionary, Path file) {
+        dictionary.requireClassicLength();
+        long checksum = dictionary.checksum();
+        try {
+            ByteBuffer mapped = map(file);
+            if (isCurrent(mapped, dictionary, checksum)) {
+                return new FeedbackMatrix(dictionary,
+                        mapped.position(HEADER_SIZE).slice());
+            }
+        } catch (IOException e) {
+            // missing or unreadable, so compute it below
+        }
+
+        byte[] patterns = compute(dictionary);
+        try {
+            save(file, dictionary, checksum, patterns);
+            return new FeedbackMatrix(dictionary,
+                    map(file).position(HEADER_SIZE).slice());
+        } catch (IOException e) {
+            System.out.println("Unable to save " + file);
+            return new FeedbackMatrix(dictionary, ByteBuffer.wrap(patterns));
+        }
+    }
+
+    /**
+     * Computes the patterns of every guess against every answer, splitting the
+     * guesses across all of the cores.
+     *
+     * @param dictionary the word list
+     * @return the patterns, one byte per guess and answer
+     * @throws IllegalArgumentException if the words are not 5 letters long
+     */
+    public static byte[] compute(WordDictionary dictionary) {
+        dictionary.requireClassicLength();
+        int answers = dictionary.getAnswerCount();
+        int firstAnswer = dictionary.getAnswerIndex();
+        byte[] patterns = new byte[dictionary.size() * answers];
+
+        IntStream.range(0, dictionary.size()).parallel().forEach(g -> {
+            int guess = (int) dictionary.codeAt(g);
+            int row = g * answers;
+            for (int a = 0; a < answers; a++) {
+                patterns[row + a] = (byte) WordleScorer.score(guess,
+                        (int) dictionary.codeAt(firstAnswer + a));
+            }
+        });
+        return patterns;
+    }
+
+    /**
+     * Memory maps a file read only.
+     *
+     * @param file the file to map
+     * @return the contents of the file
+     * @throws IOException if the file can't be read
+     */
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+    }
+
+    /**
+     * Determines if a saved matrix matches the current word list.
+     *
+     * @param mapped the contents of the saved file
+     * @param dictionary the word list
+     * @param checksum the checksum of the word list
+     * @return true if the saved matrix can be used
+     */
+    private static boolean isCurrent(ByteBuffer mapped,
+            WordDictionary dictionary, long checksum) {
+        long expectedSize = HEADER_SIZE
+                + (long) dictionary.size() * dictionary.getAnswerCount();
+        return mapped.capacity() == expectedSize
+                && mapped.getInt(0) == MAGIC
+                && mapped.getInt(4) == VERSION
+                && mapped.getInt(8) == dictionary.size()
+                && mapped.getInt(12) == dictionary.getAnswerCount()
+                && mapped.getLong(16) == checksum;
+    }
+
+    /**
+     * Saves the matrix to a file, writing to a temporary file first so that a
+     * partly written matrix is never read.
+     *
+     * @param file the file to save to
+     * @param dictionary the word list
+     * @param checksum the checksum of the word list
+     * @param patterns the patterns to save
+     * @throws IOException if the file can't be written
+     */
+    private static void save(Path file, WordDictionary dictionary,
+            long checksum, byte[] patterns) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(dictionary.size());
+        header.putInt(dictionary.getAnswerCount());
+        header.putLong(checksum);
+        header.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header);
+            ByteBuffer body = ByteBuffer.wrap(patterns);
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the pattern a guess gets against an answer.
+     *
+     * @param guess the word list index of the guess
+     * @param answer the word list index of the answer, which must be at or
+     *               after the answer index
+     * @return the pattern code
+     */
+    public int getPattern(int guess, int answer) {
+        return patterns.get(guess * answerCount + answer - answerIndex) & 0xFF;
+    }
+
+    /**
+     * Getter method for the dictionary.
+     *
+     * @return the word list the matrix was computed from
+     */
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+}
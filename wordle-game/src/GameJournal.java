@@ -0,0 +1,438 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An append-only record of every game played, for analytics and for settling
+ * disputes. Each event is a fixed size record written straight into a memory
+ * mapped file, so recording a guess is a few stores and never waits on the
+ * disk.
+ *
+ * The journal is a directory of segment files, each holding a fixed number
+ * of records. When a segment fills up, the next one is started, and each
+ * segment is named after the sequence number of its first record. Records
+ * are made durable in groups: a background thread forces everything written
+ * so far to disk every few milliseconds, and then stores the number of
+ * committed records in the segment header. Readers only trust records up to
+ * that count, so a crash can lose the last few records but never leaves a
+ * torn one behind.
+ *
+ * Every record is 32 bytes:
+ *     0   long  the game id, which is the sequence number of its start record
+ *     8   long  the time of the event, in milliseconds since the epoch
+ *     16  long  the packed guess in bits 0 to 39 (0 in a start record), the
+ *               mode flags in bits 40 to 47, and the list id in bits 48 to 63
+ *     24  int   the word list index of the secret word, or -1 in Evil Wordle,
+ *               which has no secret word until the game ends
+ *     28  short the pattern code of the guess
+ *     30  byte  the index of the guess in the game, or -1 in a start record
+ *     31  byte  the number of letters in each word
+ *
+ * The list id is the low 16 bits of the word list's checksum, so games played
+ * with different word lists of the same length can be told apart.
+ *
+ * @author Kergan Sanderson
+ */
+public final class GameJournal implements Closeable {
+
+    /** The number of bytes in every record, and in each segment header. */
+    static final int RECORD_SIZE = 32;
+
+    /** Identifies a file as a journal segment. */
+    static final int MAGIC = 0x574A524E;
+
+    /** The version of the segment format, changed whenever the format is. */
+    static final int VERSION = 2;
+
+    /** Where the sequence number of the first record is in the header. */
+    static final int FIRST_SEQUENCE_OFFSET = 16;
+
+    /** Where the number of committed records is in the header. */
+    static final int COMMITTED_OFFSET = 24;
+
+    /** The guess index of a record that starts a game. */
+    public static final int START_RECORD = -1;
+
+    /** The mode flag of a game played in hard mode. */
+    public static final int MODE_HARD = 1;
+
+    /** The mode flag of a game of Evil Wordle. */
+    public static final int MODE_EVIL = 2;
+
+    /** The bits of the packed guess field holding the packed guess. */
+    static final long GUESS_MASK = (1L << 40) - 1;
+
+    /** Where the mode flags start in the packed guess field. */
+    static final int MODE_SHIFT = 40;
+
+    /** Where the list id starts in the packed guess field. */
+    static final int LIST_ID_SHIFT = 48;
+
+    /** The number of records in a segment if none is given. */
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+
+    /** How often records are committed if not asked for, in milliseconds. */
+    public static final long DEFAULT_COMMIT_MILLIS = 10;
+
+    /** The directory holding the segments. */
+    private final Path directory;
+
+    /** The number of records in each segment. */
+    private final int segmentRecords;
+
+    /** Held while a record is written or a segment is started. */
+    private final ReentrantLock writeLock;
+
+    /** Held while records are forced to disk. */
+    private final ReentrantLock commitLock;
+
+    /** Commits the records in the background. */
+    private final ScheduledExecutorService committer;
+
+    /** The segment being written. */
+    private MappedByteBuffer segment;
+
+    /** The sequence number of the first record in the segment. */
+    private long firstSequence;
+
+    /** The number of records the segment has room for. */
+    private int capacity;
+
+    /** The number of records written to the segment. */
+    private volatile int written;
+
+    /** The number of records in the segment known to be on disk. */
+    private int committed;
+
+    /** Whether the journal has been closed. */
+    private volatile boolean closed;
+
+    /**
+     * Opens a journal with the default segment size and commit interval,
+     * creating the directory if needed.
+     *
+     * @param directory the directory holding the segments
+     * @throws IOException if the journal can't be opened
+     */
+    public GameJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_RECORDS, DEFAULT_COMMIT_MILLIS);
+    }
+
+    /**
+     * Opens a journal, carrying on after the last committed record if it
+     * already has segments.
+     *
+     * @param directory the directory holding the segments
+     * @param segmentRecords the number of records in each new segment
+     * @param commitMillis how often records are committed in the background
+     * @throws IOException if the journal can't be opened
+     * @throws IllegalArgumentException if the segment size or the commit
+     *         interval is not positive, or a segment would be over 2 GB
+     */
+    public GameJournal(Path directory, int segmentRecords, long commitMillis)
+            throws IOException {
+        if (segmentRecords < 1 || commitMillis < 1
+                || segmentRecords >= Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("Invalid journal settings");
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.writeLock = new ReentrantLock();
+        this.commitLock = new ReentrantLock();
+        Files.createDirectories(directory);
+
+        // carry on in the last segment, or start the first one
+        List<Path> segments = JournalReader.listSegments(directory);
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            reopenSegment(segments.get(segments.size() - 1));
+        }
+
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commitQuietly, commitMillis,
+                commitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records the start of a game.
+     *
+     * @param model the model of the game, just after it was reset
+     * @return the id of the game, for recording its guesses
+     * @throws IOException if a new segment can't be started
+     */
+    public long startGame(Wordle model) throws IOException {
+        return append(-1, secretIndexOf(model), gameBits(model), 0,
+                START_RECORD, model.getWordLength());
+    }
+
+    /**
+     * Records a guess.
+     *
+     * @param gameId the id returned by startGame
+     * @param model the model the guess was played on
+     * @param result the results of the guess
+     * @return the sequence number of the record
+     * @throws IOException if a new segment can't be started
+     */
+    public long recordGuess(long gameId, Wordle model, GuessResult result)
+            throws IOException {
+        return append(gameId, secretIndexOf(model),
+                result.getCode() | gameBits(model), result.getPattern(),
+                result.getIndex(), result.getWordLength());
+    }
+
+    /**
+     * Returns the list id of a word list.
+     *
+     * @param dictionary the word list
+     * @return the low 16 bits of its checksum
+     */
+    public static int listIdOf(WordDictionary dictionary) {
+        return (int) (dictionary.checksum() & 0xFFFF);
+    }
+
+    /**
+     * Returns the secret word index to record for a game.
+     *
+     * @param model the model of the game
+     * @return the word list index of the secret word, or -1 in Evil Wordle,
+     *         where it only looks like there is one
+     */
+    private static int secretIndexOf(Wordle model) {
+        return model instanceof EvilWordle ? -1 : model.getSecretIndex();
+    }
+
+    /**
+     * Returns the mode flags and list id of a game, placed where they go in
+     * the packed guess field.
+     *
+     * @param model the model of the game
+     * @return the bits to combine with the packed guess
+     */
+    private static long gameBits(Wordle model) {
+        int mode = 0;
+        if (model.isHardMode()) {
+            mode |= MODE_HARD;
+        }
+        if (model instanceof EvilWordle) {
+            mode |= MODE_EVIL;
+        }
+        return ((long) mode << MODE_SHIFT)
+                | ((long) listIdOf(model.getDictionary()) << LIST_ID_SHIFT);
+    }
+
+    /**
+     * Writes a record into the segment, starting a new segment if it is full.
+     * The record is not durable until it is committed.
+     *
+     * @param gameId the id of the game, or -1 to use the record's own
+     *        sequence number
+     * @param secretIndex the word list index of the secret word
+     * @param guessCode the packed guess, with the mode flags and list id
+     * @param pattern the pattern code of the guess
+     * @param guessIndex the index of the guess, or START_RECORD
+     * @param wordLength the number of letters in each word
+     * @return the sequence number of the record
+     * @throws IOException if a new segment can't be started
+     */
+    private long append(long gameId, int secretIndex, long guessCode,
+            int pattern, int guessIndex, int wordLength) throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Journal is closed");
+            }
+            if (written == capacity) {
+                rollSegment();
+            }
+            long sequence = firstSequence + written;
+            int offset = RECORD_SIZE * (written + 1);
+            segment.putLong(offset, gameId == -1 ? sequence : gameId);
+            segment.putLong(offset + 8, System.currentTimeMillis());
+            segment.putLong(offset + 16, guessCode);
+            segment.putInt(offset + 24, secretIndex);
+            segment.putShort(offset + 28, (short) pattern);
+            segment.put(offset + 30, (byte) guessIndex);
+            segment.put(offset + 31, (byte) wordLength);
+
+            // publish the record to the committer
+            written++;
+            return sequence;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Forces every record written so far to disk. When many threads commit
+     * at once, the first one forces the records of all of them and the rest
+     * find their records already committed.
+     *
+     * @throws IOException if the journal is closed
+     */
+    public void commit() throws IOException {
+        commitLock.lock();
+        try {
+            if (segment == null) {
+                throw new IOException("Journal is closed");
+            }
+            int count = written;
+            if (count > committed) {
+                segment.force(RECORD_SIZE * (committed + 1),
+                        RECORD_SIZE * (count - committed));
+                segment.putLong(COMMITTED_OFFSET, count);
+                segment.force(0, RECORD_SIZE);
+                committed = count;
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Commits in the background, where there is no one to report errors to.
+     */
+    private void commitQuietly() {
+        try {
+            commit();
+        } catch (IOException e) {
+            // closed, so there is nothing left to commit
+        }
+    }
+
+    /**
+     * Commits the last records and stops the background commits. The journal
+     * can be opened again later to carry on.
+     *
+     * @throws IOException if the last records can't be committed
+     */
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        committer.shutdown();
+        commitLock.lock();
+        try {
+            commit();
+            segment = null;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Getter method for the directory.
+     *
+     * @return the directory holding the segments
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the sequence number the next record will get.
+     *
+     * @return the number of records written so far
+     */
+    public long getSequence() {
+        writeLock.lock();
+        try {
+            return firstSequence + written;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Commits the full segment and starts the next one. Called with the write
+     * lock held.
+     *
+     * @throws IOException if the next segment can't be created
+     */
+    private void rollSegment() throws IOException {
+        commitLock.lock();
+        try {
+            commit();
+            openSegment(firstSequence + written);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Creates and maps a new, empty segment.
+     *
+     * @param sequence the sequence number of its first record
+     * @throws IOException if the segment can't be created
+     */
+    private void openSegment(long sequence) throws IOException {
+        Path file = directory.resolve(JournalReader.segmentName(sequence));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    (long) RECORD_SIZE * (segmentRecords + 1));
+        }
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putInt(8, RECORD_SIZE);
+        segment.putInt(12, segmentRecords);
+        segment.putLong(FIRST_SEQUENCE_OFFSET, sequence);
+        segment.putLong(COMMITTED_OFFSET, 0);
+        segment.force(0, RECORD_SIZE);
+        firstSequence = sequence;
+        capacity = segmentRecords;
+        written = 0;
+        committed = 0;
+    }
+
+    /**
+     * Maps the last segment of an existing journal to carry on writing it,
+     * dropping any records after the last commit.
+     *
+     * @param file the segment
+     * @throws IOException if the segment can't be read or is damaged
+     */
+    private void reopenSegment(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    channel.size());
+        }
+        int records = JournalReader.checkHeader(file, mapped);
+        int count = (int) mapped.getLong(COMMITTED_OFFSET);
+        long sequence = mapped.getLong(FIRST_SEQUENCE_OFFSET);
+        if (count == records) {
+            // full, so start the next one
+            openSegment(sequence + count);
+            return;
+        }
+        segment = mapped;
+        firstSequence = sequence;
+        capacity = records;
+        written = count;
+        committed = count;
+    }
+}
@@ -1,60 +1,201 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
- * The results of a guess in the game of Wordle.
- * 
+ * The results of a guess in the game of Wordle. A result is immutable and only
+ * holds the packed guess, its length, its pattern code and its index, so whole
+ * game histories are cheap to keep. The colors of every pattern are computed
+ * once per word length and shared by every result.
+ *
  * @author Kergan Sanderson
  */
-public class GuessResult {
+public final class GuessResult {
+
+    /** The colors of each pattern code for each word length, where G is
+     *  green, Y is yellow, and R is gray. Built the first time a length is
+     *  used. */
+    private static final AtomicReferenceArray<String[]> COLORS =
+            new AtomicReferenceArray<>(Wordle.MAX_WORD_LENGTH + 1);
+
+    /** The guess, packed as in Wordle.packWord. */
+    private final long code;
 
-    /** The letters in the guess. */
-    private char[] letters;
+    /** The number of letters in the guess. */
+    private final int length;
 
-    /** The colors for the guess. */
-    private char[] colors;
+    /** The pattern code for the guess. */
+    private final int pattern;
 
     /** The index of the guess in the game. */
-    private int index;
+    private final int index;
 
     /**
-     * Creates the guess result given the word and its colors.
-     * 
-     * @param guess the guess itself
-     * @param guessColors the resulting colors for the guess
-     * @param index the index of the guess from 0 to 5
+     * Creates the guess result for a 5 letter word given the packed word and
+     * its pattern.
+     *
+     * @param code the packed guess
+     * @param pattern the pattern code for the guess
+     * @param index the index of the guess in the game, from 0
+     * @throws IllegalArgumentException if the guess or pattern is not valid
      */
-    public GuessResult(String guess, char[] guessColors, int index) {
-        this.letters = new char[Wordle.LETTERS_IN_WORD];
-        this.colors = guessColors;
-        this.index = index;
+    public GuessResult(int code, int pattern, int index) {
+        this(code, Wordle.LETTERS_IN_WORD, pattern, index);
+    }
 
-        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
-            this.letters[i] = guess.charAt(i);
+    /**
+     * Creates the guess result given the packed word and its pattern.
+     *
+     * @param code the packed guess
+     * @param length the number of letters in the guess
+     * @param pattern the pattern code for the guess
+     * @param index the index of the guess in the game, from 0
+     * @throws IllegalArgumentException if the guess or pattern is not valid
+     */
+    public GuessResult(long code, int length, int pattern, int index) {
+        if (length < Wordle.MIN_WORD_LENGTH || length > Wordle.MAX_WORD_LENGTH
+                || code < 0 || (code >>> (5 * length)) != 0 || pattern < 0
+                || pattern >= WordleScorer.numberOfPatterns(length)
+                || index < 0) {
+            throw new IllegalArgumentException("Invalid guess result");
         }
+        this.code = code;
+        this.length = length;
+        this.pattern = pattern;
+        this.index = index;
     }
 
     /**
-     * Getter method for the letters.
-     * 
-     * @return the letters field of the GuessResult
+     * Getter method for the packed guess.
+     *
+     * @return the guess, packed as in Wordle.packWord
      */
-    public char[] getLetters() {
-        return letters;
+    public long getCode() {
+        return code;
     }
 
     /**
-     * Getter method for the letters.
-     * 
-     * @return the letters field of the GuessResult
+     * Getter method for the length of the guess.
+     *
+     * @return the number of letters in the guess
      */
-    public char[] getColors() {
-        return colors;
+    public int getWordLength() {
+        return length;
+    }
+
+    /**
+     * Getter method for the pattern.
+     *
+     * @return the pattern code for the guess
+     */
+    public int getPattern() {
+        return pattern;
     }
 
     /**
-     * Getter method for the letters.
-     * 
-     * @return the letters field of the GuessResult
+     * Getter method for the index.
+     *
+     * @return the index of the guess in the game
      */
     public int getIndex() {
         return index;
     }
+
+    /**
+     * Returns the guess as a word.
+     *
+     * @return the letters of the guess
+     */
+    public String getWord() {
+        return Wordle.unpackWord(code, length);
+    }
+
+    /**
+     * Returns one letter of the guess without unpacking the whole word.
+     *
+     * @param position the position of the letter, from 0
+     * @return the letter at that position
+     */
+    public char getLetter(int position) {
+        return Wordle.THE_ALPHABET[(int) (code >>> (5 * position)) & 31];
+    }
+
+    /**
+     * Returns the colors of the guess. The string is shared by every result
+     * with the same pattern.
+     *
+     * @return the colors of each letter, as G, Y, or R
+     */
+    public String getColors() {
+        return colorsOf(length)[pattern];
+    }
+
+    /**
+     * Returns the color of one letter of the guess.
+     *
+     * @param position the position of the letter, from 0
+     * @return the color of that letter, as G, Y, or R
+     */
+    public char getColor(int position) {
+        return colorsOf(length)[pattern].charAt(position);
+    }
+
+    /**
+     * Determines if the guess was the secret word.
+     *
+     * @return true if every letter is green
+     */
+    public boolean isCorrect() {
+        return pattern == WordleScorer.allGreen(length);
+    }
+
+    /**
+     * Packs the result into a long, for storing many results in bulk. The
+     * guess takes the low 40 bits, then 13 bits of pattern, 4 bits of length
+     * and 7 bits of index.
+     *
+     * @return the packed result
+     * @throws IllegalStateException if the index is too large to pack
+     */
+    public long toLong() {
+        if (index > 127) {
+            throw new IllegalStateException("Index too large to pack: "
+                    + index);
+        }
+        return ((long) index << 57) | ((long) length << 53)
+                | ((long) pattern << 40) | code;
+    }
+
+    /**
+     * Unpacks a result packed by toLong.
+     *
+     * @param packed the packed result
+     * @return the result
+     */
+    public static GuessResult fromLong(long packed) {
+        return new GuessResult(packed & 0xFFFFFFFFFFL,
+                (int) (packed >>> 53) & 15, (int) (packed >>> 40) & 0x1FFF,
+                (int) (packed >>> 57));
+    }
+
+    /**
+     * Returns the colors of every pattern for a word length, building them
+     * the first time they are needed.
+     *
+     * @param length the number of letters in each word
+     * @return the colors of each pattern code
+     */
+    private static String[] colorsOf(int length) {
+        String[] colors = COLORS.get(length);
+        if (colors == null) {
+            colors = new String[WordleScorer.numberOfPatterns(length)];
+            for (int pattern = 0; pattern < colors.length; pattern++) {
+                colors[pattern] = new String(
+                        WordleScorer.colorsOf(pattern, length));
+            }
+            // another thread may have built them first
+            if (!COLORS.compareAndSet(length, null, colors)) {
+                colors = COLORS.get(length);
+            }
+        }
+        return colors;
+    }
 }
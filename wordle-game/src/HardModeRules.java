@@ -0,0 +1,239 @@
+/**
+ * The rules of hard mode, where every green letter revealed so far must stay
+ * in the same place and every yellow letter must be used again. The revealed
+ * greens are kept as a packed word and a mask, and the number of copies of
+ * each letter that must be used as four bit counts packed into two longs, so
+ * checking a guess is one pass over its letters and one over the revealed
+ * letters, and never allocates.
+ *
+ * @author Kergan Sanderson
+ */
+public class HardModeRules {
+
+    /** The names of the positions, for rejection messages. */
+    private static final String[] ORDINALS = {"1st", "2nd", "3rd", "4th",
+                                              "5th", "6th", "7th", "8th"};
+
+    /** The number of bits holding each letter's count in a packed count. */
+    private static final int COUNT_BITS = 4;
+
+    /** The number of letters whose counts fit in one long. */
+    private static final int LETTERS_PER_LONG = Long.SIZE / COUNT_BITS;
+
+    /** Has 1s in the COUNT_BITS bits of one count. */
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    /** The number of letters in each word. */
+    private final int wordLength;
+
+    /** The green letters, packed like a word, at the positions in the mask. */
+    private long greenLetters;
+
+    /** Has 31 in the 5 bits of every position with a green letter. */
+    private long greenMask;
+
+    /** The letters that must be used, one bit per letter of the alphabet. */
+    private int requiredLetters;
+
+    /**
+     * The number of copies of the letters from a to p that must be used,
+     * COUNT_BITS bits per letter with a in the lowest bits.
+     */
+    private long requiredLow;
+
+    /** The number of copies of the letters from q to z that must be used. */
+    private long requiredHigh;
+
+    /**
+     * Creates the rules for 5 letter words with nothing revealed yet.
+     */
+    public HardModeRules() {
+        this(Wordle.LETTERS_IN_WORD);
+    }
+
+    /**
+     * Creates the rules with nothing revealed yet.
+     *
+     * @param wordLength the number of letters in each word
+     * @throws IllegalArgumentException if the length is not supported
+     */
+    public HardModeRules(int wordLength) {
+        if (wordLength < 1 || wordLength > ORDINALS.length) {
+            throw new IllegalArgumentException("Invalid word length: "
+                    + wordLength);
+        }
+        this.wordLength = wordLength;
+    }
+
+    /**
+     * Forgets every revealed letter, for a new game.
+     */
+    public void reset() {
+        greenLetters = 0;
+        greenMask = 0;
+        requiredLetters = 0;
+        requiredLow = 0;
+        requiredHigh = 0;
+    }
+
+    /**
+     * Adds the letters revealed by a guess.
+     *
+     * @param guess the packed guess
+     * @param pattern the pattern code the guess got
+     */
+    public void update(long guess, int pattern) {
+        // count the green and yellow copies of each letter
+        long revealedLow = 0;
+        long revealedHigh = 0;
+        int revealed = 0;
+        int digits = pattern;
+        for (int i = 0; i < wordLength; i++) {
+            int letter = (int) (guess >>> (5 * i)) & 31;
+            int color = digits % 3;
+            digits /= 3;
+            if (color == 2) {
+                greenLetters = (greenLetters & ~(31L << (5 * i)))
+                        | ((long) letter << (5 * i));
+                greenMask |= 31L << (5 * i);
+            }
+            if (color != 0) {
+                if (letter < LETTERS_PER_LONG) {
+                    revealedLow += 1L << (COUNT_BITS * letter);
+                } else {
+                    revealedHigh += 1L << (COUNT_BITS
+                            * (letter - LETTERS_PER_LONG));
+                }
+                revealed |= 1 << letter;
+            }
+        }
+
+        // a later guess must use at least as many copies as any guess showed
+        for (int left = revealed; left != 0; left &= left - 1) {
+            int letter = Integer.numberOfTrailingZeros(left);
+            int copies = countOf(revealedLow, revealedHigh, letter);
+            if (copies > countOf(requiredLow, requiredHigh, letter)) {
+                if (letter < LETTERS_PER_LONG) {
+                    requiredLow = withCount(requiredLow, letter, copies);
+                } else {
+                    requiredHigh = withCount(requiredHigh,
+                            letter - LETTERS_PER_LONG, copies);
+                }
+            }
+        }
+        requiredLetters |= revealed;
+    }
+
+    /**
+     * Checks a guess against the revealed letters. Nothing is allocated
+     * unless the guess breaks the rules.
+     *
+     * @param guess the packed guess
+     * @return null if the guess is allowed, or the reason it isn't
+     */
+    public String check(long guess) {
+        // every green letter must be in the same place
+        long wrongGreens = (guess ^ greenLetters) & greenMask;
+        if (wrongGreens != 0) {
+            int position = Long.numberOfTrailingZeros(wrongGreens) / 5;
+            char letter = Wordle.THE_ALPHABET[
+                    (int) (greenLetters >>> (5 * position)) & 31];
+            return ORDINALS[position] + " letter must be "
+                    + Character.toUpperCase(letter);
+        }
+        if (requiredLetters == 0) {
+            return null;
+        }
+
+        // count the copies of each letter in the guess
+        long guessLow = 0;
+        long guessHigh = 0;
+        for (int i = 0; i < wordLength; i++) {
+            int letter = (int) (guess >>> (5 * i)) & 31;
+            if (letter < LETTERS_PER_LONG) {
+                guessLow += 1L << (COUNT_BITS * letter);
+            } else {
+                guessHigh += 1L << (COUNT_BITS * (letter - LETTERS_PER_LONG));
+            }
+        }
+
+        // every revealed letter must be used at least as many times; report
+        // the letter the guess has fewest of
+        int missing = -1;
+        int fewest = Integer.MAX_VALUE;
+        for (int left = requiredLetters; left != 0; left &= left - 1) {
+            int letter = Integer.numberOfTrailingZeros(left);
+            int copies = countOf(guessLow, guessHigh, letter);
+            if (copies < countOf(requiredLow, requiredHigh, letter)
+                    && copies < fewest) {
+                missing = letter;
+                fewest = copies;
+            }
+        }
+        if (missing == -1) {
+            return null;
+        }
+        char letter = Character.toUpperCase(Wordle.THE_ALPHABET[missing]);
+        int required = countOf(requiredLow, requiredHigh, missing);
+        if (required == 1) {
+            return "Guess must contain " + letter;
+        }
+        return "Guess must contain " + required + " copies of " + letter;
+    }
+
+    /**
+     * Determines if other rules have revealed the same letters, so they allow
+     * exactly the same guesses.
+     *
+     * @param other the object to compare with
+     * @return true if it is rules for the same length with the same letters
+     *         revealed
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof HardModeRules)) {
+            return false;
+        }
+        HardModeRules rules = (HardModeRules) other;
+        return wordLength == rules.wordLength
+                && greenLetters == rules.greenLetters
+                && greenMask == rules.greenMask
+                && requiredLow == rules.requiredLow
+                && requiredHigh == rules.requiredHigh;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(greenLetters * 31 + greenMask)
+                ^ Long.hashCode(requiredLow * 31 + requiredHigh);
+    }
+
+    /**
+     * Reads the count of a letter from packed counts.
+     *
+     * @param low the counts of the letters from a to p
+     * @param high the counts of the letters from q to z
+     * @param letter the index of the letter in the alphabet
+     * @return the count of the letter
+     */
+    private static int countOf(long low, long high, int letter) {
+        if (letter < LETTERS_PER_LONG) {
+            return (int) ((low >>> (COUNT_BITS * letter)) & COUNT_MASK);
+        }
+        return (int) ((high >>> (COUNT_BITS * (letter - LETTERS_PER_LONG)))
+                & COUNT_MASK);
+    }
+
+    /**
+     * Replaces one count in a long of packed counts.
+     *
+     * @param counts the packed counts
+     * @param slot the position of the count in the long
+     * @param count the new count
+     * @return the packed counts with the one count replaced
+     */
+    private static long withCount(long counts, int slot, int count) {
+        int shift = COUNT_BITS * slot;
+        return (counts & ~(COUNT_MASK << shift)) | ((long) count << shift);
+    }
+}
@@ -0,0 +1,311 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of hints, shared by every player. Many games reach the same
+ * state, especially after popular openers, so hints are keyed by the set of
+ * answers still possible rather than by the guesses that led there. In hard
+ * mode the suggestion must keep to the letters revealed so far, so hard mode
+ * hints are also keyed by those letters. Entries
+ * are spread over independently locked segments, each evicting its least
+ * recently used entry when full. A hint that isn't cached yet is computed only
+ * once, even when many players ask for it at the same time.
+ *
+ * @author Kergan Sanderson
+ */
+public class HintCache {
+
+    /** The number of independently locked segments. */
+    private static final int SEGMENTS = 16;
+
+    /** The index used to work out the remaining answers. */
+    private final CandidateIndex index;
+
+    /** The solver that suggests the next guess. */
+    private final WordleSolver solver;
+
+    /** The segments holding the cached hints. */
+    private final Segment[] segments;
+
+    /** The number of hints found in the cache. */
+    private final LongAdder hits;
+
+    /** The number of hints that had to be computed. */
+    private final LongAdder misses;
+
+    /** The number of hints removed to make room. */
+    private final LongAdder evictions;
+
+    /**
+     * Creates the cache.
+     *
+     * @param index the index used to work out the remaining answers
+     * @param solver the solver that suggests the next guess
+     * @param capacity the most hints to keep
+     */
+    public HintCache(CandidateIndex index, WordleSolver solver, int capacity) {
+        this.index = index;
+        this.solver = solver;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Returns the hint for a game given the results so far.
+     *
+     * @param history the results of the guesses made so far
+     * @return the number of remaining answers and the suggested next guess
+     */
+    public Hint getHint(List<GuessResult> history) {
+        return getHint(history, false);
+    }
+
+    /**
+     * Returns the hint for a game given the results so far. In hard mode the
+     * suggestion is a guess that keeps to the rules of hard mode.
+     *
+     * @param history the results of the guesses made so far
+     * @param hardMode whether the game is in hard mode
+     * @return the number of remaining answers and the suggested next guess
+     */
+    public Hint getHint(List<GuessResult> history, boolean hardMode) {
+        CandidateFilter filter = new CandidateFilter(index);
+        HardModeRules rules = hardMode ? new HardModeRules() : null;
+        for (GuessResult result : history) {
+            filter.apply(result);
+            if (rules != null) {
+                rules.update(result.getCode(), result.getPattern());
+            }
+        }
+        Key key = new Key(filter.toBitset(), rules);
+
+        Segment segment = segments[(key.hash ^ (key.hash >>> 16))
+                & (SEGMENTS - 1)];
+        FutureTask<Hint> task;
+        boolean computeHere = false;
+        synchronized (segment) {
+            task = segment.get(key);
+            if (task == null) {
+                int[] candidates = filter.getCandidates();
+                // the finished task drops the candidates, so a cached hint
+                // costs a few bytes plus its key
+                task = new FutureTask<>(() -> new Hint(candidates.length,
+                        solver.bestGuess(candidates, allowedBy(rules))));
+                segment.put(key, task);
+                computeHere = true;
+            }
+        }
+
+        // compute outside the lock, so other keys in the segment aren't held
+        // up; anyone else asking for this key waits on the same task
+        if (computeHere) {
+            misses.increment();
+            task.run();
+        } else {
+            hits.increment();
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a hint", e);
+        } catch (ExecutionException e) {
+            // don't keep the failure around, so the next request retries
+            synchronized (segment) {
+                segment.remove(key, task);
+            }
+            throw new IllegalStateException("Unable to compute hint",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Finds the words that keep to the rules of hard mode.
+     *
+     * @param rules the rules, or null if the game is not in hard mode
+     * @return whether each word in the word list may be guessed, or null if
+     *         every word may be
+     */
+    private boolean[] allowedBy(HardModeRules rules) {
+        if (rules == null) {
+            return null;
+        }
+        WordDictionary dictionary = index.getDictionary();
+        boolean[] allowed = new boolean[dictionary.size()];
+        for (int i = 0; i < allowed.length; i++) {
+            allowed[i] = rules.check(dictionary.codeAt(i)) == null;
+        }
+        return allowed;
+    }
+
+    /**
+     * Getter method for the hit count.
+     *
+     * @return the number of hints found in the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Getter method for the miss count.
+     *
+     * @return the number of hints that had to be computed
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Getter method for the eviction count.
+     *
+     * @return the number of hints removed to make room
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of hints in the cache.
+     *
+     * @return the number of cached hints
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The number of answers still possible in a game and the suggested next
+     * guess.
+     */
+    public static final class Hint {
+
+        /** The number of answers still possible. */
+        private final int candidateCount;
+
+        /** The word list index of the suggested guess, or -1 if none. */
+        private final int suggestion;
+
+        /**
+         * Creates the hint.
+         *
+         * @param candidateCount the number of remaining answers
+         * @param suggestion the suggested guess
+         */
+        private Hint(int candidateCount, int suggestion) {
+            this.candidateCount = candidateCount;
+            this.suggestion = suggestion;
+        }
+
+        /**
+         * Getter method for the candidate count.
+         *
+         * @return the number of answers still possible
+         */
+        public int getCandidateCount() {
+            return candidateCount;
+        }
+
+        /**
+         * Getter method for the suggestion.
+         *
+         * @return the word list index of the suggested guess, or -1 if no
+         *         answer fits the results
+         */
+        public int getSuggestion() {
+            return suggestion;
+        }
+    }
+
+    /**
+     * A set of remaining answers, and in hard mode the letters revealed so
+     * far, used as a cache key.
+     */
+    private static final class Key {
+
+        /** One bit per answer. */
+        private final long[] bits;
+
+        /** The rules of hard mode, or null if the game is not in it. */
+        private final HardModeRules rules;
+
+        /** The hash of the bits and rules, computed once. */
+        private final int hash;
+
+        /**
+         * Creates the key.
+         *
+         * @param bits one bit per answer
+         * @param rules the rules of hard mode, or null; never changed after
+         */
+        private Key(long[] bits, HardModeRules rules) {
+            this.bits = bits;
+            this.rules = rules;
+            this.hash = Arrays.hashCode(bits) * 31 + Objects.hashCode(rules);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key
+                    && hash == ((Key) other).hash
+                    && Arrays.equals(bits, ((Key) other).bits)
+                    && Objects.equals(rules, ((Key) other).rules);
+        }
+    }
+
+    /**
+     * One segment of the cache, kept in least recently used order.
+     */
+    private final class Segment extends LinkedHashMap<Key, FutureTask<Hint>> {
+
+        /** Keeps the compiler from warning about serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /** The most hints this segment can hold. */
+        private final int capacity;
+
+        /**
+         * Creates the segment.
+         *
+         * @param capacity the most hints this segment can hold
+         */
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<Key, FutureTask<Hint>> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Aggregate reports over the games recorded in a GameJournal: how many
+ * guesses winning games took, the win rate, the most common openers, how hard
+ * each answer was, and how often each letter was green, yellow or gray at
+ * each position.
+ *
+ * Every statistic can be worked out from one record at a time (a start record
+ * counts a game for its answer and a guess record carries its own index and
+ * pattern), so there is no per game state. The journal is cut into chunks of
+ * records, the chunks are counted on all of the cores with a parallel stream,
+ * and the counts of each chunk are added together. Memory stays the same size
+ * however many games are in the journal, and no GuessResult is ever made.
+ * Records made with another word list, found from the list id, and records
+ * of Evil Wordle games are skipped.
+ *
+ * To run it from wordle-game/:
+ *     java -cp bin JournalAnalytics journal-directory [summary.json]
+ *
+ * @author Kergan Sanderson
+ */
+public class JournalAnalytics implements JournalReader.Visitor {
+
+    /** The number of records counted by one task. */
+    private static final int CHUNK_RECORDS = 1 << 16;
+
+    /** The number of openers to list in the summary. */
+    private static final int TOP_OPENERS = 10;
+
+    /** The most guesses the guess distribution keeps apart; games that took
+     *  longer are counted together. */
+    private static final int MAX_GUESSES = 32;
+
+    /** The word list the games were played with. */
+    private final WordDictionary dictionary;
+
+    /** The list id of the word list, as recorded in the journal. */
+    private final int listId;
+
+    /** The number of records counted. */
+    private long records;
+
+    /** The number of records skipped because they are for another word list
+     *  or are from Evil Wordle, which has no secret word to count. */
+    private long skipped;
+
+    /** The number of games started. */
+    private long games;
+
+    /** The number of guesses made. */
+    private long guesses;
+
+    /** The number of games won in each number of guesses, by index. */
+    private final long[] guessCounts;
+
+    /** The number of times each word was the first guess, by word list
+     *  index. */
+    private final long[] openers;
+
+    /** The number of games started with each answer, from the answer
+     *  index. */
+    private final long[] answerGames;
+
+    /** The number of games won with each answer. */
+    private final long[] answerWins;
+
+    /** The total guesses of the games won with each answer. */
+    private final long[] answerGuesses;
+
+    /** The number of times each letter got each color at each position, at
+     *  index (position * 26 + letter) * 3 + color. */
+    private final long[] letterColors;
+
+    /**
+     * Creates empty counts for games played with a word list.
+     *
+     * @param dictionary the word list the games were played with
+     */
+    public JournalAnalytics(WordDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.listId = GameJournal.listIdOf(dictionary);
+        this.guessCounts = new long[MAX_GUESSES + 1];
+        this.openers = new long[dictionary.size()];
+        this.answerGames = new long[dictionary.getAnswerCount()];
+        this.answerWins = new long[dictionary.getAnswerCount()];
+        this.answerGuesses = new long[dictionary.getAnswerCount()];
+        this.letterColors = new long[dictionary.getWordLength()
+                * Wordle.THE_ALPHABET.length * 3];
+    }
+
+    /**
+     * Counts every committed record in a journal, splitting the work across
+     * all of the cores.
+     *
+     * @param directory the directory holding the journal
+     * @param dictionary the word list the games were played with
+     * @return the counts
+     * @throws IOException if a segment can't be read or is damaged
+     */
+    public static JournalAnalytics analyze(Path directory,
+            WordDictionary dictionary) throws IOException {
+        // cut the mapped segments into chunks; the mappings are not copied
+        List<ByteBuffer> chunks = new ArrayList<>();
+        for (Path segment : new JournalReader(directory).getSegments()) {
+            ByteBuffer records = JournalReader.mapRecords(segment);
+            int chunkBytes = CHUNK_RECORDS * GameJournal.RECORD_SIZE;
+            for (int start = 0; start < records.limit(); start += chunkBytes) {
+                chunks.add(records.slice(start,
+                        Math.min(chunkBytes, records.limit() - start)));
+            }
+        }
+
+        // each split of the stream counts into its own object, and the
+        // objects are added together at the end
+        return chunks.parallelStream().collect(
+                () -> new JournalAnalytics(dictionary),
+                (counts, chunk) -> JournalReader.visitRecords(chunk, counts),
+                JournalAnalytics::add);
+    }
+
+    /**
+     * Counts one record.
+     */
+    @Override
+    public void visit(long gameId, long timestamp, int secretIndex,
+            long guessCode, int pattern, int guessIndex, int wordLength,
+            int listId, int mode) {
+        records++;
+        int answer = secretIndex - dictionary.getAnswerIndex();
+        if (listId != this.listId || (mode & GameJournal.MODE_EVIL) != 0
+                || wordLength != dictionary.getWordLength() || answer < 0
+                || secretIndex >= dictionary.size()) {
+            skipped++;
+            return;
+        }
+        if (guessIndex == GameJournal.START_RECORD) {
+            games++;
+            answerGames[answer]++;
+            return;
+        }
+        guesses++;
+
+        if (guessIndex == 0) {
+            int opener = dictionary.indexOf(guessCode);
+            if (opener != -1) {
+                openers[opener]++;
+            }
+        }
+
+        // the colors of each letter are the base 3 digits of the pattern
+        int digits = pattern;
+        for (int i = 0; i < wordLength; i++) {
+            int letter = (int) (guessCode >>> (5 * i)) & 31;
+            letterColors[(i * Wordle.THE_ALPHABET.length + letter) * 3
+                    + digits % 3]++;
+            digits /= 3;
+        }
+
+        if (pattern == WordleScorer.allGreen(wordLength)) {
+            int guessCount = guessIndex + 1;
+            guessCounts[Math.min(guessCount, MAX_GUESSES)]++;
+            answerWins[answer]++;
+            answerGuesses[answer] += guessCount;
+        }
+    }
+
+    /**
+     * Adds the counts of another part of the journal to these.
+     *
+     * @param other the other counts
+     */
+    public void add(JournalAnalytics other) {
+        records += other.records;
+        skipped += other.skipped;
+        games += other.games;
+        guesses += other.guesses;
+        addAll(guessCounts, other.guessCounts);
+        addAll(openers, other.openers);
+        addAll(answerGames, other.answerGames);
+        addAll(answerWins, other.answerWins);
+        addAll(answerGuesses, other.answerGuesses);
+        addAll(letterColors, other.letterColors);
+    }
+
+    /**
+     * Adds one array of counts to another.
+     *
+     * @param counts the counts to add to
+     * @param more the counts to add
+     */
+    private static void addAll(long[] counts, long[] more) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += more[i];
+        }
+    }
+
+    /**
+     * Getter method for the number of records.
+     *
+     * @return the number of records counted, including skipped ones
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Getter method for the number of games.
+     *
+     * @return the number of games started
+     */
+    public long getGameCount() {
+        return games;
+    }
+
+    /**
+     * Returns the number of games won.
+     *
+     * @return the number of games that ended with every letter green
+     */
+    public long getWinCount() {
+        long wins = 0;
+        for (long count : guessCounts) {
+            wins += count;
+        }
+        return wins;
+    }
+
+    /**
+     * Returns the number of games won in some number of guesses.
+     *
+     * @param guessCount the number of guesses
+     * @return the number of games won in that many guesses
+     */
+    public long getWinsIn(int guessCount) {
+        return guessCounts[guessCount];
+    }
+
+    /**
+     * Returns how many times each word was the first guess.
+     *
+     * @return the count for each word, by word list index
+     */
+    public long[] getOpenerCounts() {
+        return openers.clone();
+    }
+
+    /**
+     * Formats the counts as JSON.
+     *
+     * @return the summary
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        long wins = getWinCount();
+        json.append("\"records\":").append(records);
+        json.append(",\"skippedRecords\":").append(skipped);
+        json.append(",\"games\":").append(games);
+        json.append(",\"guesses\":").append(guesses);
+        json.append(",\"wins\":").append(wins);
+        json.append(",\"winRate\":").append(ratio(wins, games));
+
+        // the number of games won in each number of guesses
+        json.append(",\"guessDistribution\":{");
+        boolean first = true;
+        for (int count = 1; count < guessCounts.length; count++) {
+            if (guessCounts[count] > 0) {
+                json.append(first ? "" : ",").append('"').append(count)
+                        .append("\":").append(guessCounts[count]);
+                first = false;
+            }
+        }
+        json.append('}');
+
+        // the most common openers, most common first
+        json.append(",\"topOpeners\":[");
+        Integer[] words = new Integer[openers.length];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = i;
+        }
+        Arrays.sort(words, Comparator.comparingLong(i -> -openers[i]));
+        for (int i = 0; i < TOP_OPENERS && i < words.length
+                && openers[words[i]] > 0; i++) {
+            json.append(i > 0 ? "," : "").append("{\"word\":\"")
+                    .append(dictionary.wordAt(words[i]))
+                    .append("\",\"count\":").append(openers[words[i]])
+                    .append('}');
+        }
+        json.append(']');
+
+        // every answer that was played, hardest first: lowest win rate,
+        // then most guesses to win
+        json.append(",\"answers\":[");
+        List<Integer> played = new ArrayList<>();
+        for (int a = 0; a < answerGames.length; a++) {
+            if (answerGames[a] > 0 || answerWins[a] > 0) {
+                played.add(a);
+            }
+        }
+        played.sort(Comparator.comparingDouble((Integer a) ->
+                ratio(answerWins[a], answerGames[a]))
+                .thenComparingDouble(a -> -ratio(answerGuesses[a],
+                        answerWins[a])));
+        for (int i = 0; i < played.size(); i++) {
+            int a = played.get(i);
+            json.append(i > 0 ? "," : "").append("{\"word\":\"")
+                    .append(dictionary.wordAt(dictionary.getAnswerIndex() + a))
+                    .append("\",\"games\":").append(answerGames[a])
+                    .append(",\"wins\":").append(answerWins[a])
+                    .append(",\"winRate\":")
+                    .append(ratio(answerWins[a], answerGames[a]))
+                    .append(",\"averageGuesses\":")
+                    .append(ratio(answerGuesses[a], answerWins[a]))
+                    .append('}');
+        }
+        json.append(']');
+
+        // how often each letter was green, yellow and gray at each position
+        json.append(",\"letterPositions\":[");
+        for (int i = 0; i < dictionary.getWordLength(); i++) {
+            json.append(i > 0 ? "," : "").append('{');
+            first = true;
+            for (int letter = 0; letter < Wordle.THE_ALPHABET.length;
+                    letter++) {
+                int index = (i * Wordle.THE_ALPHABET.length + letter) * 3;
+                long gray = letterColors[index];
+                long yellow = letterColors[index + 1];
+                long green = letterColors[index + 2];
+                if (gray + yellow + green > 0) {
+                    json.append(first ? "" : ",").append('"')
+                            .append(Wordle.THE_ALPHABET[letter])
+                            .append("\":{\"G\":").append(green)
+                            .append(",\"Y\":").append(yellow)
+                            .append(",\"R\":").append(gray).append('}');
+                    first = false;
+                }
+            }
+            json.append('}');
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    /**
+     * Divides two counts, rounded for the summary.
+     *
+     * @param count the count
+     * @param total the count to divide by
+     * @return the ratio to 4 decimal places, or 0 if the total is 0
+     */
+    private static double ratio(long count, long total) {
+        if (total == 0) {
+            return 0;
+        }
+        return Math.round(10000.0 * count / total) / 10000.0;
+    }
+
+    /**
+     * Starts the program.
+     *
+     * @param args command line arguments, the journal directory and
+     *             optionally the file to write the summary to
+     * @throws IOException if the journal can't be read or the summary can't
+     *         be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println(
+                    "Usage: java JournalAnalytics journal [summary.json]");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        JournalAnalytics analytics = analyze(Path.of(args[0]),
+                WordDictionary.getShared());
+        long elapsed = System.nanoTime() - start;
+
+        String json = analytics.toJson();
+        if (args.length > 1) {
+            Files.writeString(Path.of(args[1]), json, StandardCharsets.UTF_8);
+            System.out.printf("%d records in %.2f s (%.1f million/s)%n",
+                    analytics.getRecordCount(), elapsed / 1e9,
+                    analytics.getRecordCount() / (elapsed / 1e3));
+        } else {
+            System.out.println(json);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the games recorded by a GameJournal. Records are handed to a visitor
+ * one field at a time straight from the mapped segments, so a whole journal
+ * can be read without making an object per record. A single game can also be
+ * replayed as the list of its guess results.
+ *
+ * Only committed records are read, so a journal can be read while it is
+ * still being written.
+ *
+ * @author Kergan Sanderson
+ */
+public class JournalReader {
+
+    /** The start of the name of every segment file. */
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    /** The end of the name of every segment file. */
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    /** The segment files, in order. */
+    private final List<Path> segments;
+
+    /**
+     * Receives the fields of each record.
+     */
+    public interface Visitor {
+
+        /**
+         * Called for each record, in the order they were written.
+         *
+         * @param gameId the id of the game
+         * @param timestamp the time of the event, in milliseconds
+         * @param secretIndex the word list index of the secret word, or -1
+         *        for Evil Wordle
+         * @param guessCode the packed guess, or 0 for a start record
+         * @param pattern the pattern code of the guess
+         * @param guessIndex the index of the guess in the game, or
+         *        GameJournal.START_RECORD
+         * @param wordLength the number of letters in each word
+         * @param listId the list id of the word list the game was played with
+         * @param mode the GameJournal.MODE_ flags of the game
+         */
+        void visit(long gameId, long timestamp, int secretIndex,
+                long guessCode, int pattern, int guessIndex, int wordLength,
+                int listId, int mode);
+    }
+
+    /**
+     * Opens the segments of a journal as they are now.
+     *
+     * @param directory the directory holding the segments
+     * @throws IOException if the directory can't be read
+     */
+    public JournalReader(Path directory) throws IOException {
+        segments = listSegments(directory);
+    }
+
+    /**
+     * Getter method for the segments.
+     *
+     * @return the segment files, in order
+     */
+    public List<Path> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Reads every committed record in order.
+     *
+     * @param visitor receives each record
+     * @throws IOException if a segment can't be read or is damaged
+     */
+    public void forEach(Visitor visitor) throws IOException {
+        for (Path segment : segments) {
+            visitRecords(mapRecords(segment), visitor);
+        }
+    }
+
+    /**
+     * Replays one game, turning its records back into its guess results.
+     * Only the segments from the one the game started in are read.
+     *
+     * @param gameId the id of the game
+     * @return the results of every guess in the game, in order, which is
+     *         empty if the game made no guesses or isn't in the journal
+     * @throws IOException if a segment can't be read or is damaged
+     */
+    public List<GuessResult> replay(long gameId) throws IOException {
+        List<GuessResult> results = new ArrayList<>();
+        Visitor collect = (id, timestamp, secretIndex, guessCode, pattern,
+                guessIndex, wordLength, listId, mode) -> {
+            if (id == gameId && guessIndex != GameJournal.START_RECORD) {
+                results.add(new GuessResult(guessCode, wordLength, pattern,
+                        guessIndex));
+            }
+        };
+        for (int i = 0; i < segments.size(); i++) {
+            // the game can't start before the segment holding its id
+            boolean isLast = i == segments.size() - 1;
+            if (isLast || firstSequenceOf(segments.get(i + 1)) > gameId) {
+                visitRecords(mapRecords(segments.get(i)), collect);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Finds the secret word index recorded for a game.
+     *
+     * @param gameId the id of the game
+     * @return the word list index of the secret word when the game started,
+     *         or -1 if the game isn't in the journal
+     * @throws IOException if a segment can't be read or is damaged
+     */
+    public int secretIndexOf(long gameId) throws IOException {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            if (firstSequenceOf(segments.get(i)) <= gameId) {
+                ByteBuffer records = mapRecords(segments.get(i));
+                long first = firstSequenceOf(segments.get(i));
+                long offset = (gameId - first) * GameJournal.RECORD_SIZE;
+                if (offset >= records.limit()) {
+                    return -1;
+                }
+                return records.getInt((int) offset + 24);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Hands every record in a buffer of records to a visitor.
+     *
+     * @param records the records
+     * @param visitor receives each record
+     */
+    public static void visitRecords(ByteBuffer records, Visitor visitor) {
+        for (int offset = 0; offset < records.limit();
+                offset += GameJournal.RECORD_SIZE) {
+            long packed = records.getLong(offset + 16);
+            visitor.visit(records.getLong(offset), records.getLong(offset + 8),
+                    records.getInt(offset + 24),
+                    packed & GameJournal.GUESS_MASK,
+                    records.getShort(offset + 28), records.get(offset + 30),
+                    records.get(offset + 31),
+                    (int) (packed >>> GameJournal.LIST_ID_SHIFT),
+                    (int) (packed >>> GameJournal.MODE_SHIFT) & 0xFF);
+        }
+    }
+
+    /**
+     * Maps the committed records of a segment, without its header.
+     *
+     * @param segment the segment file
+     * @return the records, one every GameJournal.RECORD_SIZE bytes
+     * @throws IOException if the segment can't be read or is damaged
+     */
+    public static ByteBuffer mapRecords(Path segment) throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(segment,
+                StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+        int records = checkHeader(segment, mapped);
+        long committed = mapped.getLong(GameJournal.COMMITTED_OFFSET);
+        if (committed < 0 || committed > records) {
+            throw new IOException(segment + " is damaged");
+        }
+        return mapped.slice(GameJournal.RECORD_SIZE,
+                (int) committed * GameJournal.RECORD_SIZE);
+    }
+
+    /**
+     * Checks the header of a segment.
+     *
+     * @param segment the segment file
+     * @param mapped the whole segment
+     * @return the number of records the segment has room for
+     * @throws IOException if the header is wrong
+     */
+    static int checkHeader(Path segment, ByteBuffer mapped)
+            throws IOException {
+        if (mapped.capacity() < GameJournal.RECORD_SIZE
+                || mapped.getInt(0) != GameJournal.MAGIC
+                || mapped.getInt(4) != GameJournal.VERSION
+                || mapped.getInt(8) != GameJournal.RECORD_SIZE) {
+            throw new IOException(segment + " is not a journal segment");
+        }
+        int records = mapped.getInt(12);
+        if (records < 1 || mapped.capacity()
+                != (long) GameJournal.RECORD_SIZE * (records + 1)) {
+            throw new IOException(segment + " has the wrong size");
+        }
+        return records;
+    }
+
+    /**
+     * Lists the segments of a journal in the order they were written.
+     *
+     * @param directory the directory holding the segments
+     * @return the segment files, in order
+     * @throws IOException if the directory can't be read
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                segments.add(file);
+            }
+        }
+        // the sequence numbers are zero padded, so names sort in order
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Returns the file name of a segment.
+     *
+     * @param firstSequence the sequence number of its first record
+     * @return the name of the segment file
+     */
+    static String segmentName(long firstSequence) {
+        return String.format("%s%019d%s", SEGMENT_PREFIX, firstSequence,
+                SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Reads the sequence number of the first record of a segment from its
+     * name.
+     *
+     * @param segment the segment file
+     * @return the sequence number of its first record
+     */
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,312 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A model for playing several boards of Wordle at once, like Quordle (4
+ * boards) or Octordle (8 boards). Every board has its own secret word, and
+ * each guess is played on every board that hasn't been solved yet. The game is
+ * won once every board is solved.
+ *
+ * Each guess is scored against all of the unsolved boards in one pass with
+ * WordleScorer.scoreAll, so adding boards costs little more than scoring one
+ * more word per guess.
+ *
+ * @author Kergan Sanderson
+ */
+public final class MultiWordle {
+
+    /** The number of boards in a game of Quordle. */
+    public static final int QUORDLE = 4;
+
+    /** The number of boards in a game of Octordle. */
+    public static final int OCTORDLE = 8;
+
+    /** The number of boards in a game of Sedecordle. */
+    public static final int SEDECORDLE = 16;
+
+    /** The number of guesses given beyond one per board, as in Quordle. */
+    public static final int EXTRA_GUESSES = 5;
+
+    /** The New York Times Wordle word list. */
+    private final WordDictionary dictionary;
+
+    /** The number of guesses allowed in this game. */
+    private final int guessesInGame;
+
+    /** The secret word of each board, packed into ints. */
+    private final int[] secretCodes;
+
+    /** The guess that solved each board, or -1 if it isn't solved. */
+    private final int[] solvedAt;
+
+    /** The secret words of the unsolved boards, for scoring in one pass. */
+    private final int[] unsolvedCodes;
+
+    /** The board of each of the unsolved secret words. */
+    private final int[] unsolvedBoards;
+
+    /** The number of unsolved boards, at the start of unsolvedCodes. */
+    private int unsolvedCount;
+
+    /** The patterns of the last guess against each unsolved board. */
+    private final byte[] patterns;
+
+    /** The number of guesses the player has made. */
+    private int numberOfGuesses;
+
+    /**
+     * Creates a game with the shared word list, giving one guess per board
+     * plus EXTRA_GUESSES.
+     *
+     * @param boards the number of boards
+     * @throws IllegalStateException if the word list can't be found
+     */
+    public MultiWordle(int boards) {
+        this(WordDictionary.getShared(), boards, boards + EXTRA_GUESSES);
+    }
+
+    /**
+     * Creates a game and picks a different secret word for every board.
+     *
+     * @param dictionary the word list to play with
+     * @param boards the number of boards
+     * @param guessesInGame the number of guesses allowed
+     * @throws IllegalArgumentException if there are no boards, more boards
+     *         than answers, fewer guesses than boards, or the words are not 5
+     *         letters long
+     */
+    public MultiWordle(WordDictionary dictionary, int boards,
+            int guessesInGame) {
+        dictionary.requireClassicLength();
+        if (boards < 1 || boards > dictionary.getAnswerCount()) {
+            throw new IllegalArgumentException("Invalid number of boards: "
+                    + boards);
+        }
+        if (guessesInGame < boards) {
+            throw new IllegalArgumentException(
+                    "A game needs at least one guess per board");
+        }
+        this.dictionary = dictionary;
+        this.guessesInGame = guessesInGame;
+        this.secretCodes = new int[boards];
+        this.solvedAt = new int[boards];
+        this.unsolvedCodes = new int[boards];
+        this.unsolvedBoards = new int[boards];
+        this.patterns = new byte[boards];
+        resetGame();
+    }
+
+    /**
+     * Getter method for the number of boards.
+     *
+     * @return the number of boards in the game
+     */
+    public int getBoardCount() {
+        return secretCodes.length;
+    }
+
+    /**
+     * Getter method for the number of guesses allowed.
+     *
+     * @return the number of guesses allowed in this game
+     */
+    public int getGuessesInGame() {
+        return guessesInGame;
+    }
+
+    /**
+     * Getter method for the number of guesses made.
+     *
+     * @return the number of guesses the player has made
+     */
+    public int getNumberOfGuesses() {
+        return numberOfGuesses;
+    }
+
+    /**
+     * Getter method for the dictionary.
+     *
+     * @return the index over the word list
+     */
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the secret word of a board.
+     *
+     * @param board the board, from 0
+     * @return the secret word of that board
+     */
+    public String getSecretWord(int board) {
+        return Wordle.unpackWord(secretCodes[board]);
+    }
+
+    /**
+     * Determine if a word is a valid guess.
+     *
+     * @param word the guessed word
+     * @return true if the word is a valid guess
+     */
+    public boolean isValidGuess(String word) {
+        return dictionary.contains(Wordle.packWord(word));
+    }
+
+    /**
+     * Determines if a board has been solved.
+     *
+     * @param board the board, from 0
+     * @return true if the secret word of the board has been guessed
+     */
+    public boolean isSolved(int board) {
+        return solvedAt[board] != -1;
+    }
+
+    /**
+     * Returns the number of boards that have been solved.
+     *
+     * @return the number of solved boards
+     */
+    public int getSolvedCount() {
+        return secretCodes.length - unsolvedCount;
+    }
+
+    /**
+     * Determines if the player is out of guesses.
+     *
+     * @return true if no guesses are left
+     */
+    public boolean isOutOfTurns() {
+        return numberOfGuesses == guessesInGame;
+    }
+
+    /**
+     * Returns whether every board has been solved.
+     *
+     * @return true if the player has won
+     */
+    public boolean getHasGuessedSecretWords() {
+        return unsolvedCount == 0;
+    }
+
+    /**
+     * Determines if the game is over, either because the player is out of
+     * guesses or because every board is solved.
+     *
+     * @return true if no more guesses can be made
+     */
+    public boolean isGameOver() {
+        return isOutOfTurns() || unsolvedCount == 0;
+    }
+
+    /**
+     * Plays a guess on every unsolved board.
+     *
+     * @param guess the guess to report results for
+     * @return the results of the guess on each board, with null for boards
+     *         that were already solved
+     */
+    public GuessResult[] getGuessResults(String guess) {
+        int guessCode = Wordle.packWord(guess);
+        GuessResult[] results = new GuessResult[secretCodes.length];
+
+        // score every unsolved board at once
+        WordleScorer.scoreAll(guessCode, unsolvedCodes, unsolvedCount,
+                patterns);
+
+        // report each board, keeping the ones that are still unsolved
+        int kept = 0;
+        for (int i = 0; i < unsolvedCount; i++) {
+            int pattern = patterns[i] & 0xFF;
+            int board = unsolvedBoards[i];
+            results[board] = new GuessResult(guessCode, pattern,
+                    numberOfGuesses);
+            if (pattern == WordleScorer.ALL_GREEN) {
+                solvedAt[board] = numberOfGuesses;
+            } else {
+                unsolvedCodes[kept] = unsolvedCodes[i];
+                unsolvedBoards[kept] = board;
+                kept++;
+            }
+        }
+        unsolvedCount = kept;
+
+        // update the number of guesses that have been made in the game
+        numberOfGuesses++;
+        return results;
+    }
+
+    /**
+     * Resets the model, choosing new secret words to start a new game.
+     */
+    public void resetGame() {
+        int[] secrets = new int[secretCodes.length];
+        for (int board = 0; board < secrets.length; board++) {
+            // keep drawing until the word isn't on another board
+            int code;
+            do {
+                int index = ThreadLocalRandom.current().nextInt(
+                        dictionary.getAnswerIndex(), dictionary.size());
+                code = (int) dictionary.codeAt(index);
+            } while (indexOf(secrets, board, code) != -1);
+            secrets[board] = code;
+        }
+        start(secrets);
+    }
+
+    /**
+     * Resets the model with chosen secret words, for replaying or simulating
+     * a specific game.
+     *
+     * @param secrets the new secret word of each board
+     * @throws IllegalArgumentException if the number of secret words doesn't
+     *         match the number of boards, or a secret word is not in the list
+     */
+    public void resetGame(String... secrets) {
+        if (secrets.length != secretCodes.length) {
+            throw new IllegalArgumentException("Expected "
+                    + secretCodes.length + " secret words");
+        }
+        int[] codes = new int[secrets.length];
+        for (int board = 0; board < secrets.length; board++) {
+            if (!isValidGuess(secrets[board])) {
+                throw new IllegalArgumentException("Not in word list: "
+                        + secrets[board]);
+            }
+            codes[board] = Wordle.packWord(secrets[board]);
+        }
+        start(codes);
+    }
+
+    /**
+     * Starts a game with the given secret words.
+     *
+     * @param secrets the packed secret word of each board
+     */
+    private void start(int[] secrets) {
+        for (int board = 0; board < secrets.length; board++) {
+            secretCodes[board] = secrets[board];
+            unsolvedCodes[board] = secrets[board];
+            unsolvedBoards[board] = board;
+            solvedAt[board] = -1;
+        }
+        unsolvedCount = secrets.length;
+        numberOfGuesses = 0;
+    }
+
+    /**
+     * Finds a packed word among the first few of an array.
+     *
+     * @param codes the packed words
+     * @param count the number of words to search, from the start
+     * @param code the word to find
+     * @return the index of the word, or -1 if it isn't there
+     */
+    private static int indexOf(int[] codes, int count, int code) {
+        for (int i = 0; i < count; i++) {
+            if (codes[i] == code) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
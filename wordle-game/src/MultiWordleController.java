@@ -0,0 +1,99 @@
+/**
+ * The controller for a game of several boards of Wordle at once. Each board
+ * reports to its own view, so any WordleView can show one board.
+ *
+ * @author Kergan Sanderson
+ */
+public class MultiWordleController {
+
+    /** The model for the controller. */
+    private MultiWordle model;
+
+    /** The view for each board. */
+    private WordleView[] views;
+
+    /**
+     * Creates the controller with a given model and a view for each board.
+     *
+     * @param model the model for the game
+     * @param views the view for each board, in order
+     * @throws IllegalArgumentException if there isn't one view per board
+     */
+    public MultiWordleController(MultiWordle model, WordleView[] views) {
+        if (views.length != model.getBoardCount()) {
+            throw new IllegalArgumentException("Expected "
+                    + model.getBoardCount() + " views");
+        }
+        this.model = model;
+        this.views = views.clone();
+    }
+
+    /**
+     * Plays a guess from the user on every unsolved board and returns the
+     * results.
+     *
+     * @param guess the word that was entered by the user
+     * @return the results of the guess on each board, with null for boards
+     *         that were already solved, or null if the guess was not valid or
+     *         the game was already over
+     */
+    public GuessResult[] getGuessResults(String guess) {
+        if (!model.isValidGuess(guess)) {
+            return null;
+        }
+
+        // don't allow gameplay if game is over
+        if (model.isGameOver()) {
+            endGame();
+            return null;
+        }
+
+        GuessResult[] results = model.getGuessResults(guess);
+        for (int board = 0; board < views.length; board++) {
+            if (results[board] != null) {
+                views[board].displayGuess(results[board]);
+
+                // a board ends as soon as it is solved
+                if (model.isSolved(board)) {
+                    views[board].endGame(model.getSecretWord(board));
+                }
+            }
+        }
+
+        // check if game is over
+        if (model.isOutOfTurns()) {
+            endGame();
+        }
+        return results;
+    }
+
+    /**
+     * Reveals the secret word of every board that wasn't solved.
+     */
+    private void endGame() {
+        for (int board = 0; board < views.length; board++) {
+            if (!model.isSolved(board)) {
+                views[board].endGame(model.getSecretWord(board));
+            }
+        }
+    }
+
+    /**
+     * Starts a new game by refreshing the model and the views.
+     */
+    public void startNewGame() {
+        for (WordleView view : views) {
+            view.clearOutput();
+        }
+        model.resetGame();
+    }
+
+    /**
+     * Getter method for the model.
+     *
+     * @return the model for the controller
+     */
+    public MultiWordle getModel() {
+        return model;
+    }
+}
@@ -0,0 +1,196 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks secret words by difficulty, either at random from a tier or from a
+ * daily schedule that every server with the same seed agrees on. Each pick
+ * takes constant time and allocates nothing.
+ *
+ * The random numbers come from SplitMix64 over one shared counter: a pick
+ * adds a constant to the counter and scrambles the result, so any number of
+ * threads can pick at once without a lock, and a seed gives the same picks
+ * every run. The daily schedule has a seed of its own, so it can be shared
+ * without making the random picks predictable.
+ *
+ * The daily schedule gets easier at the start of the week and harder at the
+ * end. Each tier's days are numbered in order, and the number is sent through
+ * a fixed shuffle of the tier, so an answer isn't repeated until every answer
+ * in its tier has been used.
+ *
+ * @author Kergan Sanderson
+ */
+public class SecretPicker {
+
+    /** The tier of each day of the week, from Monday. */
+    public static final AnswerRatings.Tier[] DAILY_TIERS = {
+        AnswerRatings.Tier.EASY, AnswerRatings.Tier.EASY,
+        AnswerRatings.Tier.MEDIUM, AnswerRatings.Tier.MEDIUM,
+        AnswerRatings.Tier.HARD, AnswerRatings.Tier.MEDIUM,
+        AnswerRatings.Tier.HARD
+    };
+
+    /** The seed of the daily schedule if none is given. */
+    public static final long DEFAULT_SCHEDULE_SEED = 20220619;
+
+    /** Added to the counter for every random number, as in SplitMix64. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** The ratings the tiers come from. */
+    private final AnswerRatings ratings;
+
+    /** The counter the random numbers are made from. */
+    private final AtomicLong state;
+
+    /** The multiplier of each tier's daily shuffle. */
+    private final int[] dailyMultiplier;
+
+    /** The offset of each tier's daily shuffle. */
+    private final int[] dailyOffset;
+
+    /** The number of days of each tier in a week. */
+    private final int[] daysPerWeek;
+
+    /** The number of days of the same tier earlier in the week, by day. */
+    private final int[] dayInWeek;
+
+    /**
+     * Creates a picker with the default daily schedule and random picks
+     * seeded from the clock.
+     *
+     * @param ratings the ratings the tiers come from
+     */
+    public SecretPicker(AnswerRatings ratings) {
+        this(ratings, DEFAULT_SCHEDULE_SEED, mix(System.nanoTime()));
+    }
+
+    /**
+     * Creates a picker. Pickers with the same ratings and seeds make the same
+     * picks and have the same daily schedule.
+     *
+     * @param ratings the ratings the tiers come from
+     * @param scheduleSeed the seed of the daily schedule
+     * @param randomSeed the seed of the random picks
+     */
+    public SecretPicker(AnswerRatings ratings, long scheduleSeed,
+            long randomSeed) {
+        this.ratings = ratings;
+        this.state = new AtomicLong(randomSeed);
+
+        // each tier's shuffle is position * multiplier + offset, modulo the
+        // size of the tier, which visits every position once as long as the
+        // multiplier shares no factor with the size
+        AnswerRatings.Tier[] tiers = AnswerRatings.Tier.values();
+        dailyMultiplier = new int[tiers.length];
+        dailyOffset = new int[tiers.length];
+        for (AnswerRatings.Tier tier : tiers) {
+            int size = ratings.getTierSize(tier);
+            long mixed = mix(scheduleSeed
+                    + GOLDEN_GAMMA * (tier.ordinal() + 1));
+            int multiplier = 1 + bounded(mixed, size);
+            while (gcd(multiplier, size) != 1) {
+                multiplier++;
+            }
+            dailyMultiplier[tier.ordinal()] = multiplier;
+            dailyOffset[tier.ordinal()] = bounded(mix(mixed), size);
+        }
+
+        daysPerWeek = new int[tiers.length];
+        dayInWeek = new int[DAILY_TIERS.length];
+        for (int day = 0; day < DAILY_TIERS.length; day++) {
+            dayInWeek[day] = daysPerWeek[DAILY_TIERS[day].ordinal()]++;
+        }
+    }
+
+    /**
+     * Picks a random answer from a tier.
+     *
+     * @param tier the tier
+     * @return the word list index of the answer
+     */
+    public int pick(AnswerRatings.Tier tier) {
+        return ratings.getAnswer(tier,
+                bounded(nextLong(), ratings.getTierSize(tier)));
+    }
+
+    /**
+     * Picks the answer for a day from the daily schedule, in the tier for its
+     * day of the week.
+     *
+     * @param date the day
+     * @return the word list index of the answer
+     */
+    public int daily(LocalDate date) {
+        int day = date.getDayOfWeek().getValue()
+                - DayOfWeek.MONDAY.getValue();
+        AnswerRatings.Tier tier = DAILY_TIERS[day];
+        int t = tier.ordinal();
+
+        // the number of days of this tier before this one, starting from the
+        // week of 1970-01-01, a Thursday
+        long week = Math.floorDiv(date.toEpochDay() + 3, 7);
+        long number = week * daysPerWeek[t] + dayInWeek[day];
+
+        int size = ratings.getTierSize(tier);
+        long position = (Math.floorMod(number, size) * dailyMultiplier[t]
+                + dailyOffset[t]) % size;
+        return ratings.getAnswer(tier, (int) position);
+    }
+
+    /**
+     * Getter method for the ratings.
+     *
+     * @return the ratings the tiers come from
+     */
+    public AnswerRatings getRatings() {
+        return ratings;
+    }
+
+    /**
+     * Returns the next random number.
+     *
+     * @return 64 random bits
+     */
+    private long nextLong() {
+        return mix(state.addAndGet(GOLDEN_GAMMA));
+    }
+
+    /**
+     * Scrambles the bits of a number, as in SplitMix64.
+     *
+     * @param z the number
+     * @return the scrambled number
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Turns random bits into a number below a bound, using the high bits.
+     *
+     * @param random the random bits
+     * @param bound the bound, which must be positive
+     * @return a number from 0 up to the bound
+     */
+    private static int bounded(long random, int bound) {
+        return (int) (((random >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Finds the greatest common divisor of two numbers.
+     *
+     * @param a the first number
+     * @param b the second number
+     * @return the greatest common divisor
+     */
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,595 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A tournament where many players solve the same secret word at the same
+ * time, with a live leaderboard ranked by the fewest guesses and then the
+ * fastest solve.
+ *
+ * The secret word is packed once for the whole tournament and every guess is
+ * scored against it without allocating. Each player's guesses are kept in a
+ * small array that is replaced, never changed, so a player's state can be
+ * read without a lock, and only guesses from the same player wait on each
+ * other. The counts are striped LongAdders, and a solve is added to a lock
+ * free queue, so submitting a guess never takes a lock shared by every
+ * player.
+ *
+ * The leaderboard is built when it is read: the reader takes the solves
+ * queued since the last read, sorts them into the previous leaderboard and
+ * publishes the result as an immutable snapshot. Readers only ever wait for
+ * each other, and a snapshot never changes once published.
+ *
+ * Solve times are measured from the start of the tournament, so joining late
+ * doesn't help. A tournament ends when its time runs out or when it is ended
+ * early; after that no one can join or guess, and only then is the secret
+ * word meant to be shown.
+ *
+ * @author Kergan Sanderson
+ */
+public class Tournament {
+
+    /** The most players a tournament takes if no limit is given. */
+    public static final int DEFAULT_MAX_PLAYERS = 100_000;
+
+    /** How long a tournament runs if no time is given, in milliseconds. */
+    public static final long DEFAULT_DURATION_MILLIS = 60 * 60 * 1000;
+
+    /** Orders standings by guesses, then solve time, then who solved first. */
+    private static final Comparator<Standing> RANKING =
+            Comparator.comparingInt((Standing s) -> s.guesses)
+                    .thenComparingLong(s -> s.solveMillis)
+                    .thenComparingLong(s -> s.sequence);
+
+    /** The word list the tournament is played with. */
+    private final WordDictionary dictionary;
+
+    /** The number of letters in each word. */
+    private final int wordLength;
+
+    /** The number of guesses each player gets. */
+    private final int guessesInGame;
+
+    /** The most players the tournament takes. */
+    private final int maxPlayers;
+
+    /** The word list index of the secret word. */
+    private final int secretIndex;
+
+    /** The secret word, packed once for every player. */
+    private final long secretCode;
+
+    /** When the tournament started, in milliseconds. */
+    private final long startMillis;
+
+    /** When the tournament's time runs out, in milliseconds. */
+    private final long endMillis;
+
+    /** Whether the tournament was ended before its time ran out. */
+    private volatile boolean ended;
+
+    /** The players, by id. */
+    private final Map<String, Player> players;
+
+    /** The number of places taken, counted before a player is added. */
+    private final AtomicInteger playerCount;
+
+    /** The number of guesses made by every player. */
+    private final LongAdder guessCount;
+
+    /** The number of players who solved it in each number of guesses. */
+    private final LongAdder[] solvedIn;
+
+    /** Numbers the solves in the order they happened. */
+    private final AtomicLong solveSequence;
+
+    /** The solves that are not on the leaderboard yet. */
+    private final ConcurrentLinkedQueue<Standing> newSolves;
+
+    /** Held while the leaderboard is being rebuilt; never by submitters. */
+    private final ReentrantLock leaderboardLock;
+
+    /** The latest leaderboard. */
+    private volatile Leaderboard leaderboard;
+
+    /**
+     * Creates a tournament with the normal number of guesses.
+     *
+     * @param dictionary the word list to play with
+     * @param secretIndex the word list index of the secret word
+     * @throws IllegalArgumentException if the index is not an answer
+     */
+    public Tournament(WordDictionary dictionary, int secretIndex) {
+        this(dictionary, secretIndex, Wordle.GUESSES_IN_GAME,
+                DEFAULT_MAX_PLAYERS, DEFAULT_DURATION_MILLIS);
+    }
+
+    /**
+     * Creates a tournament.
+     *
+     * @param dictionary the word list to play with
+     * @param secretIndex the word list index of the secret word
+     * @param guessesInGame the number of guesses each player gets
+     * @param maxPlayers the most players the tournament takes
+     * @param durationMillis how long the tournament runs, in milliseconds
+     * @throws IllegalArgumentException if the index is not an answer,
+     *         guessesInGame is less than 1 or durationMillis is less than 1
+     */
+    public Tournament(WordDictionary dictionary, int secretIndex,
+            int guessesInGame, int maxPlayers, long durationMillis) {
+        if (secretIndex < dictionary.getAnswerIndex()
+                || secretIndex >= dictionary.size()) {
+            throw new IllegalArgumentException("Not an answer: "
+                    + secretIndex);
+        }
+        if (guessesInGame < 1) {
+            throw new IllegalArgumentException("A game needs at least 1 guess");
+        }
+        if (durationMillis < 1) {
+            throw new IllegalArgumentException("Invalid duration: "
+                    + durationMillis);
+        }
+        this.dictionary = dictionary;
+        this.wordLength = dictionary.getWordLength();
+        this.guessesInGame = guessesInGame;
+        this.maxPlayers = maxPlayers;
+        this.secretIndex = secretIndex;
+        this.secretCode = dictionary.codeAt(secretIndex);
+        this.startMillis = System.currentTimeMillis();
+        this.endMillis = startMillis + durationMillis;
+        this.players = new ConcurrentHashMap<>();
+        this.playerCount = new AtomicInteger();
+        this.guessCount = new LongAdder();
+        this.solvedIn = new LongAdder[guessesInGame + 1];
+        for (int i = 0; i < solvedIn.length; i++) {
+            solvedIn[i] = new LongAdder();
+        }
+        this.solveSequence = new AtomicLong();
+        this.newSolves = new ConcurrentLinkedQueue<>();
+        this.leaderboardLock = new ReentrantLock();
+        this.leaderboard = new Leaderboard(new Standing[0]);
+    }
+
+    /**
+     * Adds a player to the tournament.
+     *
+     * @param name the name shown on the leaderboard
+     * @return the new player, or null if the tournament is full
+     * @throws IllegalStateException if the tournament has ended
+     */
+    public Player join(String name) {
+        if (isEnded()) {
+            throw new IllegalStateException("Tournament is over");
+        }
+        // take a place before adding the player, so players joining at the
+        // same time can't all pass the check and overfill it
+        int taken;
+        do {
+            taken = playerCount.get();
+            if (taken >= maxPlayers) {
+                return null;
+            }
+        } while (!playerCount.compareAndSet(taken, taken + 1));
+        Player player = new Player(UUID.randomUUID().toString(), name);
+        players.put(player.id, player);
+        return player;
+    }
+
+    /**
+     * Finds a player.
+     *
+     * @param id the id of the player
+     * @return the player, or null if there is no such player
+     */
+    public Player getPlayer(String id) {
+        return players.get(id);
+    }
+
+    /**
+     * Submits a player's guess. Guesses by the same player are made one at a
+     * time; guesses by different players don't wait on each other.
+     *
+     * @param player the player making the guess
+     * @param guess the guessed word
+     * @return the results of the guess, or null if it is not in the word list
+     * @throws IllegalStateException if the player's game or the tournament
+     *         is over
+     */
+    public GuessResult submit(Player player, String guess) {
+        if (isEnded()) {
+            throw new IllegalStateException("Tournament is over");
+        }
+        long guessCode = Wordle.packWord(guess, wordLength);
+        if (!dictionary.contains(guessCode)) {
+            return null;
+        }
+        int pattern;
+        if (wordLength == Wordle.LETTERS_IN_WORD) {
+            // the classic length has a faster kernel
+            pattern = WordleScorer.score((int) guessCode, (int) secretCode);
+        } else {
+            pattern = WordleScorer.score(guessCode, secretCode, wordLength);
+        }
+
+        GuessResult result;
+        player.lock.lock();
+        try {
+            if (isOver(player.results)) {
+                throw new IllegalStateException("Game is over");
+            }
+            GuessResult[] before = player.results;
+            result = new GuessResult(guessCode, wordLength, pattern,
+                    before.length);
+            GuessResult[] after = Arrays.copyOf(before, before.length + 1);
+            after[before.length] = result;
+            player.results = after;
+        } finally {
+            player.lock.unlock();
+        }
+        guessCount.increment();
+
+        if (pattern == WordleScorer.allGreen(wordLength)) {
+            int guesses = result.getIndex() + 1;
+            solvedIn[guesses].increment();
+            Standing standing = new Standing(player, guesses,
+                    System.currentTimeMillis() - startMillis,
+                    solveSequence.getAndIncrement());
+            player.standing = standing;
+            newSolves.add(standing);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the leaderboard as it is now. Solves reported before this is
+     * called are always on it.
+     *
+     * @return a snapshot of the leaderboard that never changes
+     */
+    public Leaderboard getLeaderboard() {
+        // a solve is numbered before it is queued, and the solves are
+        // published in queue order, so a leaderboard holding as many solves
+        // as had been numbered holds every solve reported before this call.
+        // An empty queue proves nothing: another reader may have taken the
+        // solves and not published them yet
+        long numbered = solveSequence.get();
+        Leaderboard current = leaderboard;
+        if (current.size() >= numbered) {
+            return current;
+        }
+        leaderboardLock.lock();
+        try {
+            List<Standing> added = new ArrayList<>();
+            Standing standing;
+            while ((standing = newSolves.poll()) != null) {
+                added.add(standing);
+            }
+            if (added.isEmpty()) {
+                // another reader took them first
+                return leaderboard;
+            }
+            added.sort(RANKING);
+
+            // merge the new solves into the sorted standings
+            Standing[] old = leaderboard.standings;
+            Standing[] merged = new Standing[old.length + added.size()];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < merged.length; k++) {
+                if (j == added.size() || (i < old.length
+                        && RANKING.compare(old[i], added.get(j)) <= 0)) {
+                    merged[k] = old[i++];
+                } else {
+                    merged[k] = added.get(j++);
+                }
+            }
+            Leaderboard updated = new Leaderboard(merged);
+            leaderboard = updated;
+            return updated;
+        } finally {
+            leaderboardLock.unlock();
+        }
+    }
+
+    /**
+     * Ends the tournament before its time runs out. No one can join or guess
+     * after it ends.
+     */
+    public void end() {
+        ended = true;
+    }
+
+    /**
+     * Returns whether the tournament has ended.
+     *
+     * @return true if it was ended or its time has run out
+     */
+    public boolean isEnded() {
+        return ended || System.currentTimeMillis() >= endMillis;
+    }
+
+    /**
+     * Returns how long the tournament has left.
+     *
+     * @return the time left in milliseconds, or 0 if it has ended
+     */
+    public long getMillisLeft() {
+        return ended ? 0 : Math.max(0,
+                endMillis - System.currentTimeMillis());
+    }
+
+    /**
+     * Determines if a game is over, from the results of its guesses.
+     *
+     * @param results the results of the guesses so far
+     * @return true if the last guess was right or no guesses are left
+     */
+    private boolean isOver(GuessResult[] results) {
+        return results.length == guessesInGame || (results.length > 0
+                && results[results.length - 1].getPattern()
+                        == WordleScorer.allGreen(wordLength));
+    }
+
+    /**
+     * Getter method for the secret word. Players shouldn't be shown it until
+     * the tournament has ended.
+     *
+     * @return the secret word
+     */
+    public String getSecretWord() {
+        return Wordle.unpackWord(secretCode, wordLength);
+    }
+
+    /**
+     * Getter method for the secret index.
+     *
+     * @return the word list index of the secret word
+     */
+    public int getSecretIndex() {
+        return secretIndex;
+    }
+
+    /**
+     * Getter method for the number of guesses in a game.
+     *
+     * @return the number of guesses each player gets
+     */
+    public int getGuessesInGame() {
+        return guessesInGame;
+    }
+
+    /**
+     * Returns the number of players.
+     *
+     * @return the number of players who have joined
+     */
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * Returns the number of guesses made.
+     *
+     * @return the number of guesses made by every player
+     */
+    public long getGuessCount() {
+        return guessCount.sum();
+    }
+
+    /**
+     * Returns the number of players who solved it in some number of guesses.
+     *
+     * @param guesses the number of guesses
+     * @return the number of players who solved it in that many guesses
+     */
+    public long getSolvedIn(int guesses) {
+        return solvedIn[guesses].sum();
+    }
+
+    /**
+     * A player's game. Its guesses only ever change by being replaced with a
+     * longer array, so they can be read at any time without the lock.
+     */
+    public final class Player {
+
+        /** The id of the player. */
+        private final String id;
+
+        /** The name shown on the leaderboard. */
+        private final String name;
+
+        /** Lets only one guess by this player be made at a time. */
+        private final ReentrantLock lock;
+
+        /** The results of the player's guesses so far. */
+        private volatile GuessResult[] results;
+
+        /** The player's solve, or null until the player solves it. */
+        private volatile Standing standing;
+
+        /**
+         * Creates a player who has made no guesses.
+         *
+         * @param id the id of the player
+         * @param name the name shown on the leaderboard
+         */
+        private Player(String id, String name) {
+            this.id = id;
+            this.name = name;
+            this.lock = new ReentrantLock();
+            this.results = new GuessResult[0];
+        }
+
+        /**
+         * Getter method for the id.
+         *
+         * @return the id of the player
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Getter method for the name.
+         *
+         * @return the name shown on the leaderboard
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the results of the player's guesses.
+         *
+         * @return the results so far, in order
+         */
+        public List<GuessResult> getResults() {
+            return Collections.unmodifiableList(Arrays.asList(results));
+        }
+
+        /**
+         * Returns whether the player has solved it.
+         *
+         * @return true if the player's last guess was the secret word
+         */
+        public boolean hasSolved() {
+            GuessResult[] current = results;
+            return current.length > 0 && current[current.length - 1]
+                    .getPattern() == WordleScorer.allGreen(wordLength);
+        }
+
+        /**
+         * Returns whether the player's game is over.
+         *
+         * @return true if the player can't make any more guesses
+         */
+        public boolean isGameOver() {
+            return isOver(results);
+        }
+    }
+
+    /**
+     * A solve on the leaderboard.
+     */
+    public static final class Standing {
+
+        /** The player who solved it. */
+        private final Player player;
+
+        /** The number of guesses it took. */
+        private final int guesses;
+
+        /** The time from the start of the tournament, in milliseconds. */
+        private final long solveMillis;
+
+        /** The order of the solve, which breaks ties. */
+        private final long sequence;
+
+        /**
+         * Creates a standing.
+         *
+         * @param player the player who solved it
+         * @param guesses the number of guesses it took
+         * @param solveMillis the time it took
+         * @param sequence the order of the solve
+         */
+        private Standing(Player player, int guesses, long solveMillis,
+                long sequence) {
+            this.player = player;
+            this.guesses = guesses;
+            this.solveMillis = solveMillis;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Getter method for the player.
+         *
+         * @return the player who solved it
+         */
+        public Player getPlayer() {
+            return player;
+        }
+
+        /**
+         * Getter method for the number of guesses.
+         *
+         * @return the number of guesses it took
+         */
+        public int getGuesses() {
+            return guesses;
+        }
+
+        /**
+         * Getter method for the solve time.
+         *
+         * @return the time from the start of the tournament to solving it,
+         *         in milliseconds
+         */
+        public long getSolveMillis() {
+            return solveMillis;
+        }
+    }
+
+    /**
+     * An immutable snapshot of the leaderboard, best first.
+     */
+    public static final class Leaderboard {
+
+        /** The standings, best first. */
+        private final Standing[] standings;
+
+        /**
+         * Creates a snapshot.
+         *
+         * @param standings the standings, best first
+         */
+        private Leaderboard(Standing[] standings) {
+            this.standings = standings;
+        }
+
+        /**
+         * Returns the number of players on the leaderboard.
+         *
+         * @return the number of solves in this snapshot
+         */
+        public int size() {
+            return standings.length;
+        }
+
+        /**
+         * Returns the best standings.
+         *
+         * @param count the most standings to return
+         * @return up to count standings, best first
+         */
+        public List<Standing> getTop(int count) {
+            return Collections.unmodifiableList(Arrays.asList(standings)
+                    .subList(0, Math.min(count, standings.length)));
+        }
+
+        /**
+         * Finds a player's place on the leaderboard.
+         *
+         * @param player the player
+         * @return the player's rank from 1, or -1 if the player isn't on it
+         */
+        public int rankOf(Player player) {
+            Standing standing = player.standing;
+            if (standing == null) {
+                return -1;
+            }
+            int index = Arrays.binarySearch(standings, standing, RANKING);
+            return index < 0 ? -1 : index + 1;
+        }
+    }
+}
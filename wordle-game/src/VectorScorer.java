@@ -0,0 +1,135 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scores one guess against many secret words at once using the Vector API,
+ * with one secret word in each lane. It follows the same green-then-yellow
+ * passes as WordleScorer.score, using lane masks to track which letters of
+ * each secret word have been matched.
+ *
+ * This class needs the jdk.incubator.vector module, so only use it through
+ * WordleScorer.scoreAll, which falls back to plain loops without it.
+ *
+ * @author Kergan Sanderson
+ */
+final class VectorScorer {
+
+    /**
+     * The vector shape to use, at most 256 bits wide. Masks on wider vectors
+     * get boxed on the heap by some JDKs, which allocates for every vector and
+     * ends up no faster.
+     */
+    private static final VectorSpecies<Integer> SPECIES =
+            IntVector.SPECIES_PREFERRED.vectorBitSize() > 256
+                    ? IntVector.SPECIES_256 : IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Byte vectors with one lane for each lane of SPECIES, so patterns can be
+     * narrowed and stored in one step, or null if SPECIES is too narrow for
+     * a byte vector of that many lanes to exist.
+     */
+    private static final VectorSpecies<Byte> BYTE_SPECIES =
+            SPECIES.vectorBitSize() / 4 >= VectorShape.S_64_BIT.vectorBitSize()
+                    ? VectorSpecies.of(byte.class, VectorShape.forBitSize(
+                            SPECIES.vectorBitSize() / 4))
+                    : null;
+
+    /** The value of a yellow letter at each position of a pattern. */
+    private static final int[] PLACE_VALUES = {1, 3, 9, 27, 81};
+
+    /**
+     * Prevents creating a scorer, since all of its methods are static.
+     */
+    private VectorScorer() {
+    }
+
+    /**
+     * Scores a guess against the first count packed secret words. Nothing is
+     * allocated.
+     *
+     * @param guess the packed guess
+     * @param secrets the packed secret words
+     * @param count the number of secret words to score
+     * @param patterns where to store the pattern code for each secret word
+     */
+    static void scoreAll(int guess, int[] secrets, int count, byte[] patterns) {
+        int bound = SPECIES.loopBound(count);
+        int s = 0;
+        for (; s < bound; s += SPECIES.length()) {
+            IntVector codes = IntVector.fromArray(SPECIES, secrets, s);
+            IntVector pattern = score(guess, codes);
+            if (BYTE_SPECIES != null) {
+                // every pattern fits in a byte, so narrow the lanes and
+                // store them straight into the output
+                ((ByteVector) pattern.castShape(BYTE_SPECIES, 0))
+                        .intoArray(patterns, s);
+            } else {
+                for (int lane = 0; lane < SPECIES.length(); lane++) {
+                    patterns[s + lane] = (byte) pattern.lane(lane);
+                }
+            }
+        }
+
+        // score the few that don't fill a whole vector one at a time
+        for (; s < count; s++) {
+            patterns[s] = (byte) WordleScorer.score(guess, secrets[s]);
+        }
+    }
+
+    /**
+     * Scores a guess against one vector of secret words.
+     *
+     * @param guess the packed guess
+     * @param codes the packed secret words
+     * @return the pattern code for each secret word
+     */
+    private static IntVector score(int guess, IntVector codes) {
+        IntVector pattern = IntVector.zero(SPECIES);
+
+        // bit i of a lane is set once letter i of its secret word has been
+        // matched; bits are used instead of arrays of masks so the JIT can
+        // keep everything in registers
+        IntVector matched = IntVector.zero(SPECIES);
+
+        // get green letters first
+        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+            VectorMask<Integer> green = letterAt(codes, i)
+                    .eq((guess >>> (5 * i)) & 31);
+            matched = matched.lanewise(VectorOperators.OR, 1 << i, green);
+            pattern = pattern.add(2 * PLACE_VALUES[i], green);
+        }
+        IntVector greens = matched;
+
+        // get yellow letters next, each using up the first unmatched copy of
+        // the letter in the secret word
+        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+            int letter = (guess >>> (5 * i)) & 31;
+            VectorMask<Integer> green = greens.and(1 << i).compare(
+                    VectorOperators.NE, 0);
+            VectorMask<Integer> found = green;
+            for (int j = 0; j < Wordle.LETTERS_IN_WORD; j++) {
+                VectorMask<Integer> match = letterAt(codes, j).eq(letter)
+                        .and(matched.and(1 << j).eq(0)).andNot(found);
+                matched = matched.lanewise(VectorOperators.OR, 1 << j, match);
+                found = found.or(match);
+            }
+            pattern = pattern.add(PLACE_VALUES[i], found.andNot(green));
+        }
+        return pattern;
+    }
+
+    /**
+     * Returns one letter of each secret word in a vector.
+     *
+     * @param codes the packed secret words
+     * @param position the position of the letter
+     * @return the letter at that position of each secret word
+     */
+    private static IntVector letterAt(IntVector codes, int position) {
+        return codes.lanewise(VectorOperators.LSHR, 5 * position).and(31);
+    }
+}
@@ -0,0 +1,607 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * An immutable index over a Wordle word list where every word has the same
+ * length. Every word is packed into a long (see Wordle.packWord) and stored in
+ * an open-addressing hash table, so looking up a word takes constant time and
+ * allocates nothing.
+ *
+ * The word list can be read from a comma separated file or from a binary
+ * file made by WordListFormat. The comma separated file is parsed a buffer at
+ * a time, so a list with words of many lengths can be read for just one of
+ * them. The binary file starts with a header (magic number, version, number of
+ * words, answer index, word length, table size, and the checksums of the
+ * words and of the table) followed by the packed code of every word and then
+ * the hash table. Loading it maps the file and reads both straight from the
+ * mapping, so nothing is copied or rebuilt. Loading the full word list takes
+ * about 25 microseconds: most of it is opening and mapping the file, and
+ * checking the two checksums takes about 6.
+ *
+ * @author Kergan Sanderson
+ */
+public class WordDictionary {
+
+    /** The comma separated word list. */
+    public static final String WORD_LIST_FILE = "data/wordle-wordlist.csv";
+
+    /** The binary word list. */
+    public static final String BINARY_FILE = "data/wordle-wordlist.bin";
+
+    /** Identifies a file as a binary word list. */
+    private static final int MAGIC = 0x574C5354;
+
+    /** The version of the binary format, changed whenever the format is. */
+    private static final int VERSION = 3;
+
+    /** The number of bytes before the first word in the binary file. */
+    private static final int HEADER_SIZE = 40;
+
+    /** The number of bytes read from a comma separated file at a time. */
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /** The dictionary shared by every game, or null until it is loaded. */
+    private static volatile WordDictionary shared;
+
+    /** Marks an unused slot in the hash table. */
+    private static final int EMPTY = -1;
+
+    /** Multiplier used to spread the packed codes across the table. */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /** The packed codes of every word, in word list order. */
+    private final LongBuffer codes;
+
+    /** The number of words. */
+    private final int size;
+
+    /** The number of letters in every word. */
+    private final int wordLength;
+
+    /** Index of the first of the answers in the word list. */
+    private final int answerIndex;
+
+    /** The hash table, holding the word list index of each stored word. */
+    private final IntBuffer table;
+
+    /** The number of bits to shift a hash by to get a table slot. */
+    private final int shift;
+
+    /** The checksum of the word list, or -1 until it is first asked for. */
+    private volatile long cachedChecksum = -1;
+
+    /**
+     * Creates the dictionary from the words of the word list. The word length
+     * is the length of the first word.
+     *
+     * @param words the words in the word list
+     * @param answerIndex index of the first of the answers in the word list
+     * @throws IllegalArgumentException if the list is empty or the words are
+     *         not all lowercase letters of the same supported length
+     */
+    public WordDictionary(String[] words, int answerIndex) {
+        this(packAll(words), words.length == 0 ? 0 : words[0].length(),
+                answerIndex);
+    }
+
+    /**
+     * Creates the dictionary from the packed codes of a 5 letter word list.
+     *
+     * @param codes the packed codes of the words in the word list
+     * @param answerIndex index of the first of the answers in the word list
+     */
+    public WordDictionary(int[] codes, int answerIndex) {
+        this(Arrays.stream(codes).asLongStream().toArray(),
+                Wordle.LETTERS_IN_WORD, answerIndex);
+    }
+
+    /**
+     * Creates the dictionary from the packed codes of the word list.
+     *
+     * @param codes the packed codes of the words in the word list
+     * @param wordLength the number of letters in every word
+     * @param answerIndex index of the first of the answers in the word list
+     * @throws IllegalArgumentException if the length is not supported or a
+     *         code is not a word of that length
+     */
+    public WordDictionary(long[] codes, int wordLength, int answerIndex) {
+        this(LongBuffer.wrap(codes.clone()),
+                IntBuffer.wrap(buildTable(codes, wordLength, answerIndex)),
+                wordLength, answerIndex);
+    }
+
+    /**
+     * Creates the dictionary from its words and hash table, which are used as
+     * they are, without copying.
+     *
+     * @param codes the packed codes of the words in the word list
+     * @param table the hash table, with a power of 2 number of slots
+     * @param wordLength the number of letters in every word
+     * @param answerIndex index of the first of the answers in the word list
+     */
+    private WordDictionary(LongBuffer codes, IntBuffer table, int wordLength,
+            int answerIndex) {
+        this.codes = codes;
+        this.size = codes.limit();
+        this.table = table;
+        this.shift = Long.SIZE - Integer.numberOfTrailingZeros(table.limit());
+        this.wordLength = wordLength;
+        this.answerIndex = answerIndex;
+    }
+
+    /**
+     * Checks the words of a word list and builds their hash table.
+     *
+     * @param codes the packed codes of the words in the word list
+     * @param wordLength the number of letters in every word
+     * @param answerIndex index of the first of the answers in the word list
+     * @return the hash table
+     * @throws IllegalArgumentException if the length is not supported, the
+     *         answer index is out of range, or a code is not a word of that
+     *         length
+     */
+    private static int[] buildTable(long[] codes, int wordLength,
+            int answerIndex) {
+        if (wordLength < Wordle.MIN_WORD_LENGTH
+                || wordLength > Wordle.MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Invalid word length: "
+                    + wordLength);
+        }
+        if (answerIndex < 0 || answerIndex > codes.length) {
+            throw new IllegalArgumentException(
+                    "Answer index out of range: " + answerIndex);
+        }
+
+        // keep the table at most half full so probe sequences stay short
+        int bits = 1;
+        while ((1 << bits) < codes.length * 2) {
+            bits++;
+        }
+        int[] table = new int[1 << bits];
+        int shift = Long.SIZE - bits;
+        Arrays.fill(table, EMPTY);
+
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] < 0 || (codes[i] >>> (5 * wordLength)) != 0) {
+                throw new IllegalArgumentException(
+                        "Invalid word at index " + i);
+            }
+            int slot = (int) ((codes[i] * HASH_MULTIPLIER) >>> shift);
+            while (table[slot] != EMPTY && codes[table[slot]] != codes[i]) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            // the first copy of a duplicated word wins
+            if (table[slot] == EMPTY) {
+                table[slot] = i;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Packs every word of a word list.
+     *
+     * @param words the words to pack
+     * @return the packed codes of the words
+     */
+    private static long[] packAll(String[] words) {
+        long[] codes = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            codes[i] = Wordle.packWord(words[i], words[0].length());
+        }
+        return codes;
+    }
+
+    /**
+     * Returns the dictionary shared by every game in the program, loading it
+     * the first time it is asked for. The dictionary never changes, so any
+     * number of threads can use it at once.
+     *
+     * @return the shared dictionary
+     * @throws IllegalStateException if the word list can't be found
+     */
+    public static WordDictionary getShared() {
+        WordDictionary dictionary = shared;
+        if (dictionary == null) {
+            synchronized (WordDictionary.class) {
+                dictionary = shared;
+                if (dictionary == null) {
+                    dictionary = load();
+                    shared = dictionary;
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    /**
+     * Loads the word list from the binary file, or from the comma separated
+     * file if the binary file is missing or damaged.
+     *
+     * @return the dictionary
+     * @throws IllegalStateException if neither file can be read
+     */
+    public static WordDictionary load() {
+        try {
+            return readBinary(Path.of(BINARY_FILE));
+        } catch (IOException e) {
+            // fall back to the slower comma separated file below
+        }
+        try {
+            return readCsv(Path.of(WORD_LIST_FILE));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to find "
+                    + BINARY_FILE + " or " + WORD_LIST_FILE, e);
+        }
+    }
+
+    /**
+     * Reads a binary word list by memory mapping it. The sizes come from the
+     * header, the checksums are checked against the words and the table, and
+     * then the dictionary reads both from the mapping.
+     *
+     * @param file the binary word list
+     * @return the dictionary
+     * @throws IOException if the file can't be read or is damaged
+     */
+    public static WordDictionary readBinary(Path file) throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+        if (mapped.capacity() < HEADER_SIZE || mapped.getInt(0) != MAGIC
+                || mapped.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a binary word list");
+        }
+        int count = mapped.getInt(8);
+        int answerIndex = mapped.getInt(12);
+        int wordLength = mapped.getInt(16);
+        int tableBits = mapped.getInt(20);
+        long checksum = mapped.getLong(24);
+        long tableChecksum = mapped.getLong(32);
+        if (count < 0 || answerIndex < 0 || answerIndex > count
+                || wordLength < Wordle.MIN_WORD_LENGTH
+                || wordLength > Wordle.MAX_WORD_LENGTH
+                || tableBits < 1 || tableBits > 30
+                || (1 << tableBits) <= count) {
+            throw new IOException(file + " is damaged");
+        }
+        int codesSize = count * Long.BYTES;
+        int tableSize = (1 << tableBits) * Integer.BYTES;
+        if (mapped.capacity() != (long) HEADER_SIZE + codesSize + tableSize) {
+            throw new IOException(file + " has the wrong size");
+        }
+
+        // the word checksum covers the answer index and word length too, so
+        // it is the same as checksum() of the dictionary
+        CRC32 crc = new CRC32();
+        crc.update(mapped.slice(12, 2 * Integer.BYTES));
+        crc.update(mapped.slice(HEADER_SIZE, codesSize));
+        if (crc.getValue() != checksum) {
+            throw new IOException(file + " has the wrong checksum");
+        }
+        crc.reset();
+        crc.update(mapped.slice(HEADER_SIZE + codesSize, tableSize));
+        if (crc.getValue() != tableChecksum) {
+            throw new IOException(file + " has the wrong checksum");
+        }
+
+        WordDictionary dictionary = new WordDictionary(
+                mapped.slice(HEADER_SIZE, codesSize).asLongBuffer(),
+                mapped.slice(HEADER_SIZE + codesSize, tableSize)
+                        .asIntBuffer(),
+                wordLength, answerIndex);
+        dictionary.cachedChecksum = checksum;
+        return dictionary;
+    }
+
+    /**
+     * Reads the 5 letter words of a comma separated word list.
+     *
+     * @param file the comma separated word list
+     * @return the dictionary
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if there are no 5 letter words
+     */
+    public static WordDictionary readCsv(Path file) throws IOException {
+        return readCsv(file, Wordle.LETTERS_IN_WORD);
+    }
+
+    /**
+     * Reads the words of one length from a comma separated word list. Words
+     * may be split by commas or new lines, and quotes, spaces and words of
+     * other lengths are skipped. The file is read a buffer at a time and the
+     * words are packed as they are read, so no Strings are made and the
+     * number of words doesn't need to be known ahead of time.
+     *
+     * The answers are the words after the point where the list stops being
+     * in alphabetical order. If the list is in order, every word is an answer.
+     *
+     * @param file the comma separated word list
+     * @param wordLength the length of the words to read
+     * @return the dictionary
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the length is not supported or
+     *         there are no words of that length
+     */
+    public static WordDictionary readCsv(Path file, int wordLength)
+            throws IOException {
+        if (wordLength < Wordle.MIN_WORD_LENGTH
+                || wordLength > Wordle.MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Invalid word length: "
+                    + wordLength);
+        }
+        long[] codes = new long[1024];
+        int count = 0;
+        int answerIndex = -1;
+
+        // the word being read, packed and as an alphabetical sort key
+        long code = 0;
+        long key = 0;
+        long lastKey = -1;
+        int letters = 0;
+        boolean valid = true;
+
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            do {
+                read = in.read(buffer);
+                // treat the end of the file as one last separator
+                int end = read == -1 ? 1 : read;
+                for (int i = 0; i < end; i++) {
+                    int c = read == -1 ? ',' : buffer[i];
+                    if (c >= 'A' && c <= 'Z') {
+                        c += 'a' - 'A';
+                    }
+                    if (c >= 'a' && c <= 'z') {
+                        if (letters < wordLength) {
+                            code |= (long) (c - 'a') << (5 * letters);
+                            key = (key << 5) | (c - 'a');
+                        }
+                        letters++;
+                    } else if (c == ',' || c == '\n' || c == '\r') {
+                        if (valid && letters == wordLength) {
+                            if (count == codes.length) {
+                                codes = Arrays.copyOf(codes, count * 2);
+                            }
+                            if (answerIndex == -1 && key < lastKey) {
+                                answerIndex = count;
+                            }
+                            codes[count++] = code;
+                            lastKey = key;
+                        }
+                        code = 0;
+                        key = 0;
+                        letters = 0;
+                        valid = true;
+                    } else if (c != '"' && c != ' ' && c != '\t') {
+                        // anything else can't be part of a word
+                        valid = false;
+                    }
+                }
+            } while (read != -1);
+        }
+
+        if (count == 0) {
+            throw new IllegalArgumentException("No " + wordLength
+                    + " letter words in " + file);
+        }
+        return new WordDictionary(Arrays.copyOf(codes, count), wordLength,
+                answerIndex == -1 ? 0 : answerIndex);
+    }
+
+    /**
+     * Finds where the answers start in a word list, which is the first word
+     * that comes before the word ahead of it alphabetically. If the list is in
+     * order, every word is an answer.
+     *
+     * @param words the words in the word list
+     * @return the index of the first answer
+     */
+    public static int findAnswerIndex(String[] words) {
+        for (int i = 1; i < words.length; i++) {
+            if (words[i].compareTo(words[i - 1]) < 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Writes the dictionary as a binary word list, writing to a temporary
+     * file first so that a partly written list is never read.
+     *
+     * @param file the file to write
+     * @throws IOException if the file can't be written
+     */
+    public void writeBinary(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE
+                + Long.BYTES * size + Integer.BYTES * table.limit());
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(size);
+        buffer.putInt(answerIndex);
+        buffer.putInt(wordLength);
+        buffer.putInt(Integer.numberOfTrailingZeros(table.limit()));
+        buffer.putLong(checksum());
+        buffer.putLong(0);
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(codes.get(i));
+        }
+        int tableStart = buffer.position();
+        for (int i = 0; i < table.limit(); i++) {
+            buffer.putInt(table.get(i));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), tableStart, buffer.position() - tableStart);
+        buffer.putLong(HEADER_SIZE - Long.BYTES, crc.getValue());
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Finds the table slot that holds a code, or the empty slot it would go in.
+     *
+     * @param code the packed code to look for
+     * @return the slot for the code
+     */
+    private int slotOf(long code) {
+        int mask = table.limit() - 1;
+        int slot = (int) ((code * HASH_MULTIPLIER) >>> shift);
+        int index;
+        while ((index = table.get(slot)) != EMPTY && codes.get(index) != code) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the word list index of a packed word.
+     *
+     * @param code the packed word
+     * @return the index of the word in the word list, or -1 if it is not there
+     */
+    public int indexOf(long code) {
+        if (code < 0) {
+            return -1;
+        }
+        return table.get(slotOf(code));
+    }
+
+    /**
+     * Determines if a packed word is in the word list.
+     *
+     * @param code the packed word
+     * @return true if the word is in the word list
+     */
+    public boolean contains(long code) {
+        return indexOf(code) != -1;
+    }
+
+    /**
+     * Determines if a packed word is one of the possible answers.
+     *
+     * @param code the packed word
+     * @return true if the word is in the answer part of the word list
+     */
+    public boolean isAnswer(long code) {
+        return indexOf(code) >= answerIndex;
+    }
+
+    /**
+     * Returns the packed code of the word at an index of the word list.
+     *
+     * @param index the index in the word list
+     * @return the packed code of the word
+     */
+    public long codeAt(int index) {
+        return codes.get(index);
+    }
+
+    /**
+     * Returns the word at an index of the word list.
+     *
+     * @param index the index in the word list
+     * @return the word at that index
+     */
+    public String wordAt(int index) {
+        return Wordle.unpackWord(codes.get(index), wordLength);
+    }
+
+    /**
+     * Computes a checksum of the word list, used to tell when files derived
+     * from it are out of date. It is only computed the first time.
+     *
+     * @return the CRC-32 of the packed words, the answer index and the word
+     *         length
+     */
+    public long checksum() {
+        long value = cachedChecksum;
+        if (value == -1) {
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(
+                    Integer.BYTES * 2 + Long.BYTES * size);
+            buffer.putInt(answerIndex);
+            buffer.putInt(wordLength);
+            for (int i = 0; i < size; i++) {
+                buffer.putLong(codes.get(i));
+            }
+            crc.update(buffer.array());
+            value = crc.getValue();
+            cachedChecksum = value;
+        }
+        return value;
+    }
+
+    /**
+     * Getter method for the number of words.
+     *
+     * @return the number of words in the word list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter method for the word length.
+     *
+     * @return the number of letters in every word
+     */
+    public int getWordLength() {
+        return wordLength;
+    }
+
+    /**
+     * Checks that the words have the classic 5 letters, for the parts of the
+     * program that pack words into ints.
+     *
+     * @throws IllegalArgumentException if the words are another length
+     */
+    public void requireClassicLength() {
+        if (wordLength != Wordle.LETTERS_IN_WORD) {
+            throw new IllegalArgumentException("Only " + Wordle.LETTERS_IN_WORD
+                    + " letter words are supported, not " + wordLength);
+        }
+    }
+
+    /**
+     * Getter method for the answer index.
+     *
+     * @return the index of the first of the answers in the word list
+     */
+    public int getAnswerIndex() {
+        return answerIndex;
+    }
+
+    /**
+     * Getter method for the number of answers.
+     *
+     * @return the number of possible answers in the word list
+     */
+    public int getAnswerCount() {
+        return size - answerIndex;
+    }
+}
@@ -0,0 +1,598 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A trie over every word in a word list, for finding words by pattern or by
+ * their letters, such as "words matching ?a?e? with an r but no s" or "every
+ * anagram of these letters". A query walks the trie and skips any branch that
+ * can't lead to a match, so it only visits a small part of the word list.
+ *
+ * The trie is stored in flat arrays. The children of a node are stored next to
+ * each other in letter order, with a bitmask of which letters they are for, so
+ * the child for a letter is found by counting the bits below it. Each node
+ * also has a bitmask of every letter found anywhere below it, so branches
+ * missing a required letter are skipped early. The index never changes after
+ * it is built, so one index can be shared by every game.
+ *
+ * @author Kergan Sanderson
+ */
+public class WordIndex {
+
+    /** Marks nodes with an answer somewhere below them. */
+    private static final int HAS_ANSWER = 1 << 26;
+
+    /** Letters can be anything. */
+    private static final int ALL_LETTERS = (1 << 26) - 1;
+
+    /** The number of bits for the word list index when sorting words. */
+    private static final int INDEX_BITS = 23;
+
+    /** The word list the index was built from. */
+    private final WordDictionary dictionary;
+
+    /** The number of letters in every word, which is the depth of the trie. */
+    private final int wordLength;
+
+    /** The letters that each node has children for. */
+    private final int[] childMask;
+
+    /** The first child of each node, or the word list index for a leaf. */
+    private final int[] firstChild;
+
+    /** The letters found below each node, plus HAS_ANSWER. */
+    private final int[] below;
+
+    /**
+     * Builds the index over every word in a word list.
+     *
+     * @param dictionary the word list
+     * @throws IllegalArgumentException if the word list is too large
+     */
+    public WordIndex(WordDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.wordLength = dictionary.getWordLength();
+        int words = dictionary.size();
+        if (words >= 1 << INDEX_BITS) {
+            throw new IllegalArgumentException("Too many words: " + words);
+        }
+
+        // sort the words alphabetically, keeping their word list indices
+        long[] sorted = new long[words];
+        for (int i = 0; i < words; i++) {
+            sorted[i] = (sortKey(dictionary.codeAt(i)) << INDEX_BITS) | i;
+        }
+        Arrays.sort(sorted);
+
+        // a trie with one leaf per word has at most this many nodes
+        int maxNodes = 1 + words * wordLength;
+        int[] masks = new int[maxNodes];
+        int[] children = new int[maxNodes];
+        int[] letters = new int[maxNodes];
+
+        // add the nodes one level at a time, so the children of each node end
+        // up next to each other; each node covers a range of sorted words
+        int[] from = new int[maxNodes];
+        int[] to = new int[maxNodes];
+        from[0] = 0;
+        to[0] = words;
+        int nodeCount = 1;
+        int levelStart = 0;
+        for (int depth = 0; depth < wordLength; depth++) {
+            int levelEnd = nodeCount;
+            for (int node = levelStart; node < levelEnd; node++) {
+                children[node] = nodeCount;
+                int start = from[node];
+                while (start < to[node]) {
+                    int letter = letterAt(sorted[start], depth);
+                    int end = start + 1;
+                    while (end < to[node] && letterAt(sorted[end], depth)
+                            == letter) {
+                        end++;
+                    }
+                    masks[node] |= 1 << letter;
+                    from[nodeCount] = start;
+                    to[nodeCount] = end;
+                    nodeCount++;
+                    start = end;
+                }
+            }
+            levelStart = levelEnd;
+        }
+
+        // the leaves point at their words
+        for (int node = levelStart; node < nodeCount; node++) {
+            int word = (int) sorted[from[node]] & ((1 << INDEX_BITS) - 1);
+            children[node] = word;
+            for (int i = 0; i < wordLength; i++) {
+                letters[node] |= 1 << ((int) (dictionary.codeAt(word)
+                        >>> (5 * i)) & 31);
+            }
+            if (word >= dictionary.getAnswerIndex()) {
+                letters[node] |= HAS_ANSWER;
+            }
+        }
+
+        // every other node has the letters of its children, which come after
+        // it, so work backwards
+        for (int node = levelStart - 1; node >= 0; node--) {
+            int count = Integer.bitCount(masks[node]);
+            for (int c = 0; c < count; c++) {
+                letters[node] |= letters[children[node] + c];
+            }
+        }
+
+        childMask = Arrays.copyOf(masks, nodeCount);
+        firstChild = Arrays.copyOf(children, nodeCount);
+        below = Arrays.copyOf(letters, nodeCount);
+    }
+
+    /**
+     * Starts a new query that matches every word until it is narrowed down.
+     *
+     * @return the query
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    /**
+     * Getter method for the node count.
+     *
+     * @return the number of nodes in the trie
+     */
+    public int getNodeCount() {
+        return childMask.length;
+    }
+
+    /**
+     * Getter method for the dictionary.
+     *
+     * @return the word list the index was built from
+     */
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Getter method for the word length.
+     *
+     * @return the number of letters in every word
+     */
+    public int getWordLength() {
+        return wordLength;
+    }
+
+    /**
+     * Turns a packed word into a number that sorts alphabetically, with the
+     * first letter in the highest bits.
+     *
+     * @param code the packed word
+     * @return the sort key
+     */
+    private long sortKey(long code) {
+        long key = 0;
+        for (int i = 0; i < wordLength; i++) {
+            key = (key << 5) | ((code >>> (5 * i)) & 31);
+        }
+        return key;
+    }
+
+    /**
+     * Returns a letter of a word in the sorted array.
+     *
+     * @param entry the sort key and word list index
+     * @param depth the position of the letter
+     * @return the alphabet index of the letter
+     */
+    private int letterAt(long entry, int depth) {
+        int shift = 5 * (wordLength - 1 - depth);
+        return (int) (entry >>> (INDEX_BITS + shift)) & 31;
+    }
+
+    /**
+     * Turns letters into a bitmask of their alphabet indices.
+     *
+     * @param letters the letters
+     * @return the bitmask
+     * @throws IllegalArgumentException if a character isn't a lowercase letter
+     */
+    private static int maskOf(String letters) {
+        int mask = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            mask |= 1 << checkedIndexOf(letters.charAt(i));
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the index of a letter in the alphabet.
+     *
+     * @param letter the letter
+     * @return the index 0 - 25 of the letter
+     * @throws IllegalArgumentException if it isn't a lowercase letter
+     */
+    private static int checkedIndexOf(char letter) {
+        int lIndex = Wordle.indexOfLetter(letter);
+        if (lIndex < 0) {
+            throw new IllegalArgumentException("Not a letter: " + letter);
+        }
+        return lIndex;
+    }
+
+    /**
+     * A query over the index. Each method narrows the query and returns it, so
+     * calls can be chained, and the results are only found as they are read.
+     * A query can be run more than once, but not by two threads at once while
+     * it is still being changed.
+     */
+    public final class Query implements Iterable<String> {
+
+        /** The letters allowed at each position. */
+        private final int[] allowed;
+
+        /** The letters every match must contain. */
+        private int required;
+
+        /** How many of each letter are available, or null for no limit. */
+        private int[] tiles;
+
+        /** The number of tiles that can be any letter. */
+        private int blanks;
+
+        /** Whether only answers match. */
+        private boolean answersOnly;
+
+        /** The most matches to return. */
+        private int limit;
+
+        /**
+         * Creates a query that matches every word.
+         */
+        private Query() {
+            allowed = new int[wordLength];
+            Arrays.fill(allowed, ALL_LETTERS);
+            limit = Integer.MAX_VALUE;
+        }
+
+        /**
+         * Only matches words fitting a pattern, where a letter must be at that
+         * position and ? can be any letter.
+         *
+         * @param pattern the pattern, such as ?a?e?
+         * @return this query
+         * @throws IllegalArgumentException if the pattern is the wrong length
+         *         or has something other than letters and ?
+         */
+        public Query matching(String pattern) {
+            if (pattern.length() != wordLength) {
+                throw new IllegalArgumentException("Pattern must be "
+                        + wordLength + " letters: " + pattern);
+            }
+            for (int i = 0; i < wordLength; i++) {
+                if (pattern.charAt(i) != '?') {
+                    allowed[i] &= 1 << checkedIndexOf(pattern.charAt(i));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Only matches words containing every one of some letters.
+         *
+         * @param letters the letters that must be in a match
+         * @return this query
+         */
+        public Query containing(String letters) {
+            required |= maskOf(letters);
+            return this;
+        }
+
+        /**
+         * Only matches words without any of some letters.
+         *
+         * @param letters the letters that must not be in a match
+         * @return this query
+         */
+        public Query excluding(String letters) {
+            int mask = maskOf(letters);
+            for (int i = 0; i < wordLength; i++) {
+                allowed[i] &= ~mask;
+            }
+            return this;
+        }
+
+        /**
+         * Only matches words without a letter at a position, like a yellow
+         * letter in a game.
+         *
+         * @param position the position, from 0
+         * @param letter the letter that must not be there
+         * @return this query
+         */
+        public Query notAt(int position, char letter) {
+            allowed[position] &= ~(1 << checkedIndexOf(letter));
+            return this;
+        }
+
+        /**
+         * Only matches words that can be spelled with some letter tiles, each
+         * used at most once, where ? is a blank that can be any letter. As many
+         * tiles as letters in a word find its anagrams, and more tiles also find the
+         * words that can be made from some of them.
+         *
+         * @param letters the tiles
+         * @return this query
+         */
+        public Query anagramOf(String letters) {
+            tiles = new int[Wordle.THE_ALPHABET.length];
+            blanks = 0;
+            for (int i = 0; i < letters.length(); i++) {
+                if (letters.charAt(i) == '?') {
+                    blanks++;
+                } else {
+                    tiles[checkedIndexOf(letters.charAt(i))]++;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Only matches words that can be secret words.
+         *
+         * @return this query
+         */
+        public Query answersOnly() {
+            answersOnly = true;
+            return this;
+        }
+
+        /**
+         * Stops after some number of matches.
+         *
+         * @param limit the most matches to return
+         * @return this query
+         * @throws IllegalArgumentException if the limit is negative
+         */
+        public Query limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Negative limit: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Finds the matches one at a time, in alphabetical order.
+         *
+         * @return the matching words
+         */
+        @Override
+        public Iterator<String> iterator() {
+            return new Search(this);
+        }
+
+        /**
+         * Finds the matches lazily, in alphabetical order.
+         *
+         * @return a stream of the matching words
+         */
+        public Stream<String> stream() {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                    iterator(), Spliterator.ORDERED | Spliterator.DISTINCT
+                            | Spliterator.NONNULL), false);
+        }
+    }
+
+    /**
+     * A depth first walk of the trie for one run of a query, keeping the path
+     * so far in small arrays so it can stop after each match and carry on
+     * later.
+     */
+    private final class Search implements Iterator<String> {
+
+        /** The letters allowed at each position. */
+        private final int[] allowed;
+
+        /** The letters every match must contain. */
+        private final int required;
+
+        /** How many of each tile are left, or null for no limit. */
+        private final int[] tiles;
+
+        /** The number of blank tiles left. */
+        private int blanks;
+
+        /** The letters with tiles left. */
+        private int available;
+
+        /** Whether only answers match. */
+        private final boolean answersOnly;
+
+        /** The number of matches left to return. */
+        private int remaining;
+
+        /** The node at each depth of the path. */
+        private final int[] nodes;
+
+        /** The letters still to try at each depth of the path. */
+        private final int[] options;
+
+        /** The letters used on the path above each depth. */
+        private final int[] seen;
+
+        /** The letter taken at each depth of the path. */
+        private final int[] taken;
+
+        /** Whether a blank was used for the letter at each depth. */
+        private final boolean[] usedBlank;
+
+        /** The current depth of the walk, or -1 once it is finished. */
+        private int depth;
+
+        /** The word list index of the next match, or -1 if not found yet. */
+        private int next;
+
+        /**
+         * Starts a walk for a query, copying its settings so later changes to
+         * the query don't affect it.
+         *
+         * @param query the query
+         */
+        private Search(Query query) {
+            allowed = query.allowed.clone();
+            required = query.required;
+            tiles = query.tiles == null ? null : query.tiles.clone();
+            blanks = query.blanks;
+            answersOnly = query.answersOnly;
+            remaining = query.limit;
+            if (tiles != null) {
+                for (int letter = 0; letter < tiles.length; letter++) {
+                    if (tiles[letter] > 0) {
+                        available |= 1 << letter;
+                    }
+                }
+            }
+
+            int length = wordLength;
+            nodes = new int[length];
+            options = new int[length];
+            seen = new int[length];
+            taken = new int[length];
+            usedBlank = new boolean[length];
+            depth = 0;
+            options[0] = optionsAt(0, 0);
+            next = -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == -1 && depth >= 0 && remaining > 0) {
+                next = advance();
+            }
+            return next != -1;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String word = dictionary.wordAt(next);
+            next = -1;
+            remaining--;
+            return word;
+        }
+
+        /**
+         * Returns the letters worth trying below a node.
+         *
+         * @param node the node
+         * @param position the position of the letters
+         * @return the letters that have children and are allowed there
+         */
+        private int optionsAt(int node, int position) {
+            int mask = childMask[node] & allowed[position];
+            if (tiles != null && blanks == 0) {
+                mask &= available;
+            }
+            return mask;
+        }
+
+        /**
+         * Walks the trie to the next match.
+         *
+         * @return the word list index of the match, or -1 if there are none
+         */
+        private int advance() {
+            while (depth >= 0) {
+                int letters = options[depth];
+                if (letters == 0) {
+                    // nothing left to try here, so go back up
+                    depth--;
+                    if (depth >= 0) {
+                        giveBack(depth);
+                    }
+                    continue;
+                }
+                int letter = Integer.numberOfTrailingZeros(letters);
+                options[depth] = letters & (letters - 1);
+
+                int node = nodes[depth];
+                int child = firstChild[node]
+                        + Integer.bitCount(childMask[node] & ((1 << letter) - 1));
+
+                // skip branches missing a required letter, or answers
+                int used = seen[depth] | (1 << letter);
+                int missing = required & ~used;
+                int positionsLeft = wordLength - depth - 1;
+                if ((missing & ~below[child]) != 0
+                        || Integer.bitCount(missing) > positionsLeft
+                        || (answersOnly && (below[child] & HAS_ANSWER) == 0)
+                        || !take(depth, letter)) {
+                    continue;
+                }
+
+                if (positionsLeft == 0) {
+                    // a leaf is a match
+                    giveBack(depth);
+                    return firstChild[child];
+                }
+                depth++;
+                nodes[depth] = child;
+                seen[depth] = used;
+                options[depth] = optionsAt(child, depth);
+            }
+            return -1;
+        }
+
+        /**
+         * Uses up a tile for a letter on the path, if tiles are limited.
+         *
+         * @param position the position of the letter
+         * @param letter the letter
+         * @return true if there was a tile for it
+         */
+        private boolean take(int position, int letter) {
+            if (tiles == null) {
+                return true;
+            }
+            taken[position] = letter;
+            if (tiles[letter] > 0) {
+                tiles[letter]--;
+                if (tiles[letter] == 0) {
+                    available &= ~(1 << letter);
+                }
+                usedBlank[position] = false;
+                return true;
+            }
+            if (blanks > 0) {
+                blanks--;
+                usedBlank[position] = true;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Returns the tile used for the letter at a position of the path.
+         *
+         * @param position the position of the letter
+         */
+        private void giveBack(int position) {
+            if (tiles == null) {
+                return;
+            }
+            if (usedBlank[position]) {
+                blanks++;
+            } else {
+                tiles[taken[position]]++;
+                available |= 1 << taken[position];
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The word lists the program can play with, by name. A word list file can
+ * have words of many lengths, and each length is read into its own dictionary
+ * the first time a game asks for it, then kept for every later game. A server
+ * only holds the lengths that are actually being played.
+ *
+ * The New York Times list is registered as "nyt". Its 5 letter dictionary is
+ * the shared dictionary, so it is loaded from the binary file. A name can be
+ * registered again with another file, and from then on every length is read
+ * from the new file.
+ *
+ * @author Kergan Sanderson
+ */
+public class WordLists {
+
+    /** The name of the New York Times word list. */
+    public static final String DEFAULT_LIST = "nyt";
+
+    /** The comma separated file of each word list, by name. */
+    private static final Map<String, Path> FILES = new ConcurrentHashMap<>();
+
+    /** The dictionaries loaded so far, by name and length. */
+    private static final Map<String, Loaded> LOADED =
+            new ConcurrentHashMap<>();
+
+    static {
+        FILES.put(DEFAULT_LIST, Path.of(WordDictionary.WORD_LIST_FILE));
+    }
+
+    /**
+     * Adds a word list, or replaces the file of one. Dictionaries already read
+     * from the old file are dropped, and games that have them keep playing
+     * with them, but every later game gets words from the new file.
+     *
+     * @param name the name of the word list
+     * @param file the comma separated file of words
+     */
+    public static void register(String name, Path file) {
+        FILES.put(name, file);
+        // get also checks the file of each dictionary, so one that a racing
+        // get puts back after this is still never handed out
+        LOADED.keySet().removeIf(key -> key.startsWith(name + "/"));
+    }
+
+    /**
+     * Returns the dictionary for the words of one length in a word list,
+     * reading it the first time it is asked for. Any number of threads can
+     * ask at once, and the file is only read once.
+     *
+     * @param name the name of the word list
+     * @param wordLength the number of letters in each word
+     * @return the dictionary
+     * @throws IllegalArgumentException if there is no such word list, the
+     *         length is not supported, or the list has no words that long
+     * @throws IllegalStateException if the word list can't be read
+     */
+    public static WordDictionary get(String name, int wordLength) {
+        if (wordLength < Wordle.MIN_WORD_LENGTH
+                || wordLength > Wordle.MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word length must be from "
+                    + Wordle.MIN_WORD_LENGTH + " to " + Wordle.MAX_WORD_LENGTH
+                    + ": " + wordLength);
+        }
+        Path file = FILES.get(name);
+        if (file == null) {
+            throw new IllegalArgumentException("Unknown word list: " + name);
+        }
+        if (name.equals(DEFAULT_LIST) && wordLength == Wordle.LETTERS_IN_WORD
+                && file.equals(Path.of(WordDictionary.WORD_LIST_FILE))) {
+            return WordDictionary.getShared();
+        }
+        String key = name + "/" + wordLength;
+        Loaded loaded = LOADED.get(key);
+        if (loaded == null || !loaded.file.equals(file)) {
+            // read it if it is missing or came from a file replaced since
+            loaded = LOADED.compute(key, (k, old) -> {
+                if (old != null && old.file.equals(file)) {
+                    return old;
+                }
+                try {
+                    return new Loaded(file,
+                            WordDictionary.readCsv(file, wordLength));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unable to read " + file,
+                            e);
+                }
+            });
+        }
+        return loaded.dictionary;
+    }
+
+    /**
+     * A dictionary and the file it was read from.
+     */
+    private static final class Loaded {
+
+        /** The file the dictionary was read from. */
+        private final Path file;
+
+        /** The dictionary. */
+        private final WordDictionary dictionary;
+
+        /**
+         * Creates the entry.
+         *
+         * @param file the file the dictionary was read from
+         * @param dictionary the dictionary
+         */
+        private Loaded(Path file, WordDictionary dictionary) {
+            this.file = file;
+            this.dictionary = dictionary;
+        }
+    }
+}
@@ -1,25 +1,30 @@
-import java.util.Scanner;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * A model for the game of Wordle.
+ * A model for the game of Wordle. The word list is shared by every model in 
+ * the program, so a model only holds the state of one game and creating one 
+ * does no I/O. Words can be from 4 to 8 letters long, set by the word list.
  *
  * @author Kergan Sanderson
  */
 public class Wordle {
 
-    /** The number of letters in a guess. */
+    /** The number of letters in a guess in a classic game. */
     public static final int LETTERS_IN_WORD = 5;
 
-    /** The number of guesses in a game. */
+    /** The fewest letters a word can have. */
+    public static final int MIN_WORD_LENGTH = 4;
+
+    /** The most letters a word can have. */
+    public static final int MAX_WORD_LENGTH = 8;
+
+    /** The number of guesses in a normal game. */
     public static final int GUESSES_IN_GAME = 6;
 
-    /** The number of words in the word list. */
+    /** The number of words in the shipped word list. */
     public static final int TOTAL_NUMBER_OF_WORDS = 14855;
 
-    /** Index of the first of the answers in the word list. */
+    /** Index of the first of the answers in the shipped word list. */
     public static final int ANSWER_INDEX = 12546;
 
     /** The English alphabet. */
@@ -30,50 +35,64 @@ public class Wordle {
                                                'y', 'z'};
 
     /** The New York Times Wordle word list. */
-    private String[] wordList;
+    private final WordDictionary dictionary;
+
+    /** The number of guesses allowed in this game. */
+    private final int guessesInGame;
+
+    /** The number of letters in each word. */
+    private final int wordLength;
 
-    /** The current secret word. */
-    private String secretWord;
+    /** The current secret word, packed into a long. */
+    private long secretCode;
 
     /** Whether or not the player has guessed the secret word yet. */
     private boolean hasGuessedSecretWord;
 
-    /** The number of each letter in the secret word. */
-    private int[] lettersInSecretWord;
-
     /** The number of guesses the player has made. */
     private int numberOfGuesses;
 
+    /** The hard mode rules, or null if the game is not in hard mode. */
+    private HardModeRules hardModeRules;
+
     /**
-     * Creates the model, storing the word list and picking a secret word.
+     * Creates the model with the shared word list and picks a secret word. 
+     * The word list is loaded by the first model that is created.
+     * 
+     * @throws IllegalStateException if the word list can't be found
      */
     public Wordle() {
+        this(WordDictionary.getShared());
+    }
 
-        // read the contents of the word list into a scanner
-        Scanner input = null;
-        try {
-            input = new Scanner(new FileInputStream(
-                    "data/wordle-wordlist.csv"));
-        } catch (FileNotFoundException e) {
-            System.out.println(
-                    "Unable to find data/wordle-wordlist.csv");
-        }
-        input.useDelimiter(",");
+    /**
+     * Creates the model with the given word list and picks a secret word.
+     * 
+     * @param dictionary the word list to play with
+     */
+    public Wordle(WordDictionary dictionary) {
+        this(dictionary, GUESSES_IN_GAME);
+    }
 
-        // fill the wordList array with the contents of the file
-        wordList = new String[TOTAL_NUMBER_OF_WORDS];
-        for (int i = 0; i < TOTAL_NUMBER_OF_WORDS; i++) {
-            wordList[i] = input.next();
+    /**
+     * Creates the model with the given word list and number of guesses, and 
+     * picks a secret word.
+     * 
+     * @param dictionary the word list to play with
+     * @param guessesInGame the number of guesses allowed
+     * @throws IllegalArgumentException if guessesInGame is less than 1
+     */
+    public Wordle(WordDictionary dictionary, int guessesInGame) {
+        if (guessesInGame < 1) {
+            throw new IllegalArgumentException("A game needs at least 1 guess");
         }
+        this.dictionary = dictionary;
+        this.guessesInGame = guessesInGame;
+        this.wordLength = dictionary.getWordLength();
 
         // select a random secret word
-        Random rand = new Random();
-        secretWord = wordList[
-                rand.nextInt(ANSWER_INDEX, TOTAL_NUMBER_OF_WORDS)];
-        
-        // record the number of each letter in the secret word
-        lettersInSecretWord = new int[THE_ALPHABET.length];
-        updateLettersInSecretWord();
+        secretCode = dictionary.codeAt(ThreadLocalRandom.current().nextInt(
+                dictionary.getAnswerIndex(), dictionary.size()));
 
         // set number of guesses equal to 0
         numberOfGuesses = 0;
@@ -87,7 +106,25 @@ public class Wordle {
      * @return the secret word
      */
     public String getSecretWord() {
-        return secretWord;
+        return unpackWord(secretCode, wordLength);
+    }
+
+    /**
+     * Returns where the secret word is in the word list.
+     * 
+     * @return the word list index of the secret word
+     */
+    public int getSecretIndex() {
+        return dictionary.indexOf(packWord(getSecretWord(), wordLength));
+    }
+
+    /**
+     * Getter method for the word length.
+     * 
+     * @return the number of letters in each word
+     */
+    public int getWordLength() {
+        return wordLength;
     }
 
     /**
@@ -97,15 +134,26 @@ public class Wordle {
      * @return true if the word is a valid guess
      */
     public boolean isValidGuess(String word) {
-        if (word.length() != LETTERS_IN_WORD) {
-            return false;
-        }
-        for (String s : wordList) {
-            if (s.equals(word)) {
-                return true;
-            }
-        }
-        return false;
+        return dictionary.contains(packWord(word, wordLength));
+    }
+
+    /**
+     * Determine if a word is one of the possible secret words.
+     * 
+     * @param word the word to check
+     * @return true if the word could be a secret word
+     */
+    public boolean isPossibleAnswer(String word) {
+        return dictionary.isAnswer(packWord(word, wordLength));
+    }
+
+    /**
+     * Getter method for the dictionary.
+     * 
+     * @return the index over the word list
+     */
+    public WordDictionary getDictionary() {
+        return dictionary;
     }
 
     /**
@@ -116,30 +164,73 @@ public class Wordle {
      *         secret word
      */
     public boolean isOutOfTurns() {
-        return numberOfGuesses == GUESSES_IN_GAME;
+        return numberOfGuesses == guessesInGame;
     }
 
     /**
-     * Returns whether the player has already guessed the secret word or not.
+     * Getter method for the number of guesses allowed.
      * 
-     * @return true if the player has already guessed the secret word
+     * @return the number of guesses allowed in this game
      */
-    public boolean getHasGuessedSecretWord() {
-        return hasGuessedSecretWord;
+    public int getGuessesInGame() {
+        return guessesInGame;
     }
 
     /**
-     * Update the record of letters in the secret word.
+     * Turns hard mode on or off. In hard mode every green letter must stay in 
+     * place and every yellow letter must be used in later guesses. Hard mode 
+     * can only be changed before the first guess of a game.
+     * 
+     * @param hardMode true to turn on hard mode
+     * @return true if the mode was changed, or false if the game has started
      */
-    public void updateLettersInSecretWord() {
-        for (int i = 0; i < LETTERS_IN_WORD; i++) {
-            for (int j = 0; j < THE_ALPHABET.length; j++) {
-                if (secretWord.charAt(i) == THE_ALPHABET[j]) {
-                    lettersInSecretWord[j]++;
-                    break;
-                }
-            }
+    public boolean setHardMode(boolean hardMode) {
+        if (numberOfGuesses > 0) {
+            return false;
+        }
+        hardModeRules = hardMode ? new HardModeRules(wordLength) : null;
+        return true;
+    }
+
+    /**
+     * Returns whether the game is in hard mode.
+     * 
+     * @return true if the game is in hard mode
+     */
+    public boolean isHardMode() {
+        return hardModeRules != null;
+    }
+
+    /**
+     * Checks a valid guess against the hard mode rules.
+     * 
+     * @param guess the guessed word
+     * @return null if the guess is allowed, or the reason it breaks the rules
+     */
+    public String getHardModeViolation(String guess) {
+        if (hardModeRules == null) {
+            return null;
         }
+        return hardModeRules.check(packWord(guess, wordLength));
+    }
+
+    /**
+     * Determines if the game is over, either because the player is out of 
+     * guesses or because they have guessed the secret word.
+     * 
+     * @return true if no more guesses can be made
+     */
+    public boolean isGameOver() {
+        return isOutOfTurns() || hasGuessedSecretWord;
+    }
+
+    /**
+     * Returns whether the player has already guessed the secret word or not.
+     * 
+     * @return true if the player has already guessed the secret word
+     */
+    public boolean getHasGuessedSecretWord() {
+        return hasGuessedSecretWord;
     }
 
     /**
@@ -152,49 +243,40 @@ public class Wordle {
      * @return the colors of the current guess
      */
     public GuessResult getGuessResults(String guess) {
-        // used to store the index of a letter in the alphabet
-        int lIndex = 0;
-
-        // used to store the frequency of each guess letter in the secret word
-        int[] matchedLetters = new int[THE_ALPHABET.length];
-
-        // the output of the method
-        char[] guessColors = {'R', 'R', 'R', 'R', 'R'};
-
-        // get green letters first
-        for (int i = 0; i < LETTERS_IN_WORD; i++) {
-            if (guess.charAt(i) == secretWord.charAt(i)) {
-                guessColors[i] = 'G';
-                lIndex = indexOfLetter(guess.charAt(i));
-                matchedLetters[lIndex]++;
-            }
-        }
-
-        // get yellow letters next
-        for (int i = 0; i < LETTERS_IN_WORD; i++) {
-            // skip already green letters to avoid double counting
-            if (guessColors[i] == 'G') {
-                continue;
-            }
-
-            lIndex = indexOfLetter(guess.charAt(i));
+        // score the guess without allocating
+        long guessCode = packWord(guess, wordLength);
+        int pattern = scoreGuess(guessCode);
 
-            // don't record 'Y' if there is no more of that letter
-            if (matchedLetters[lIndex] < lettersInSecretWord[lIndex]) {
-                guessColors[i] = 'Y';
-                matchedLetters[lIndex]++;
-            }
+        // remember the revealed letters for hard mode
+        if (hardModeRules != null) {
+            hardModeRules.update(guessCode, pattern);
         }
 
         // update the number of guesses that have been made in the game
         numberOfGuesses++;
 
         // update whether the user has guessed the secret word
-        if (guess.equals(secretWord)) {
+        if (pattern == WordleScorer.allGreen(wordLength)) {
             hasGuessedSecretWord = true;
         }
 
-        return new GuessResult(guess, guessColors, numberOfGuesses - 1);
+        return new GuessResult(guessCode, wordLength, pattern,
+                numberOfGuesses - 1);
+    }
+
+    /**
+     * Scores a guess against the secret word. Subclasses can override this to 
+     * change how the secret word is chosen.
+     * 
+     * @param guessCode the packed guess
+     * @return the pattern code for the guess
+     */
+    protected int scoreGuess(long guessCode) {
+        if (wordLength == LETTERS_IN_WORD) {
+            // the classic length has a faster kernel
+            return WordleScorer.score((int) guessCode, (int) secretCode);
+        }
+        return WordleScorer.score(guessCode, secretCode, wordLength);
     }
 
     /**
@@ -205,12 +287,10 @@ public class Wordle {
      * @return the index 0 - 25 of a letter in the alphabet
      */
     public static int indexOfLetter(char letter) {
-        for (int i = 0; i < THE_ALPHABET.length; i++) {
-            if (letter == THE_ALPHABET[i]) {
-                return i;
-            }
+        if (letter < 'a' || letter > 'z') {
+            return -1;
         }
-        return -1;
+        return letter - 'a';
     }
 
     /**
@@ -218,18 +298,105 @@ public class Wordle {
      */
     public void resetGame() {
         // gets a new secret word
-        Random rand = new Random();
-        secretWord = wordList[
-                rand.nextInt(ANSWER_INDEX, TOTAL_NUMBER_OF_WORDS)];
-        
-        // record the number of each letter in the secret word
-        lettersInSecretWord = new int[THE_ALPHABET.length];
-        updateLettersInSecretWord();
+        secretCode = dictionary.codeAt(ThreadLocalRandom.current().nextInt(
+                dictionary.getAnswerIndex(), dictionary.size()));
+
+        // set number of guesses equal to 0
+        numberOfGuesses = 0;
+
+        // player hasn't guessed the secret word
+        hasGuessedSecretWord = false;
+
+        // nothing has been revealed for hard mode
+        if (hardModeRules != null) {
+            hardModeRules.reset();
+        }
+    }
+
+    /**
+     * Resets the model with a chosen secret word, for replaying or simulating 
+     * a specific game.
+     * 
+     * @param secret the new secret word
+     * @throws IllegalArgumentException if the secret word is not in the word 
+     *         list
+     */
+    public void resetGame(String secret) {
+        if (!isValidGuess(secret)) {
+            throw new IllegalArgumentException("Not in word list: " + secret);
+        }
+        secretCode = packWord(secret, wordLength);
 
         // set number of guesses equal to 0
         numberOfGuesses = 0;
 
         // player hasn't guessed the secret word
         hasGuessedSecretWord = false;
+
+        // nothing has been revealed for hard mode
+        if (hardModeRules != null) {
+            hardModeRules.reset();
+        }
+    }
+
+    /**
+     * Packs a 5 letter word into an int, storing the alphabet index of each 
+     * letter in 5 bits with the first letter in the lowest bits.
+     * 
+     * @param word the word to pack
+     * @return the packed word, or -1 if the word is not 5 lowercase letters
+     */
+    public static int packWord(String word) {
+        return (int) packWord(word, LETTERS_IN_WORD);
+    }
+
+    /**
+     * Packs a word of any length from 1 to 12 letters into a long, storing 
+     * the alphabet index of each letter in 5 bits with the first letter in 
+     * the lowest bits.
+     * 
+     * @param word the word to pack
+     * @param length the number of letters the word must have
+     * @return the packed word, or -1 if the word is not that many lowercase 
+     *         letters
+     */
+    public static long packWord(String word, int length) {
+        if (word.length() != length) {
+            return -1;
+        }
+        long code = 0;
+        for (int i = 0; i < length; i++) {
+            int lIndex = indexOfLetter(word.charAt(i));
+            if (lIndex < 0) {
+                return -1;
+            }
+            code |= (long) lIndex << (5 * i);
+        }
+        return code;
+    }
+
+    /**
+     * Turns a packed 5 letter word back into a String.
+     * 
+     * @param code the packed word
+     * @return the word that was packed
+     */
+    public static String unpackWord(int code) {
+        return unpackWord(code, LETTERS_IN_WORD);
+    }
+
+    /**
+     * Turns a packed word of any length back into a String.
+     * 
+     * @param code the packed word
+     * @param length the number of letters in the word
+     * @return the word that was packed
+     */
+    public static String unpackWord(long code, int length) {
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = THE_ALPHABET[(int) (code >>> (5 * i)) & 31];
+        }
+        return new String(letters);
     }
 }
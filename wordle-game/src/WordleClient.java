@@ -1,3 +1,5 @@
+import javax.swing.SwingUtilities;
+
 /**
  * Client code for my Wordle game.
  * 
@@ -8,9 +10,27 @@ public class WordleClient {
     /**
      * Starts the program.
      * 
-     * @param args command line arguments
+     * @param args command line arguments, --evil to play Evil Wordle or
+     *             --length n to play with n letter words
      */
     public static void main(String[] args) {
-        new WordleController();
+        int length = Wordle.LETTERS_IN_WORD;
+        if (args.length > 1 && args[0].equals("--length")) {
+            length = Integer.parseInt(args[1]);
+        }
+        int wordLength = length;
+
+        // build the window on the event thread; the word list loads while it
+        // is being shown
+        SwingUtilities.invokeLater(() -> {
+            if (args.length > 0 && args[0].equals("--evil")) {
+                new WordleController(EvilWordle::new);
+            } else if (wordLength != Wordle.LETTERS_IN_WORD) {
+                new WordleController(() -> new Wordle(WordLists.get(
+                        WordLists.DEFAULT_LIST, wordLength)), wordLength);
+            } else {
+                new WordleController();
+            }
+        });
     }
 }
\ No newline at end of file
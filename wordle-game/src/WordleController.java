@@ -1,51 +1,267 @@
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 /**
  * The controller for the game of Wordle.
- * 
+ *
+ * With the GUI, the model lives on its own thread: the word list is loaded
+ * there while the window is being shown, and guesses are checked and scored
+ * there too, so the Swing event thread never waits on the model. The GUI
+ * moves the results back onto the event thread itself.
+ *
+ * If a journal is set, every guess is recorded in it, and so is the start of
+ * every game. A game's start is recorded with its first guess, once its mode
+ * can no longer change, so games with no guesses aren't recorded.
+ *
  * @author Kergan Sanderson
  */
-public class WordleController {
+public final class WordleController {
+
+    /** The model for the controller, once it has been created. */
+    private CompletableFuture<Wordle> modelFuture;
+
+    /** The view for the controller. */
+    private WordleView view;
+
+    /** Runs work on the model, in the order it was asked for. */
+    private Executor modelThread;
 
-    /** The model for the controller. */
-    private Wordle model;
+    /** The journal games are recorded in, or null to not record them. */
+    private GameJournal journal;
 
-    /** The GUI for the controller. */
-    private WordleGUI view;
+    /** The journal id of the game in progress, or -1 if it isn't recorded
+     *  yet. */
+    private long gameId;
 
     /**
-     * Creates the controller with a view and a model.
+     * Creates the controller with a GUI and a model.
      */
     public WordleController() {
-        view = new WordleGUI(this);
-        model = new Wordle();
+        this(Wordle::new);
+    }
+
+    /**
+     * Creates the controller with a GUI and a model from a factory, such as
+     * EvilWordle::new. The model is created in the background, so the window
+     * can appear before the word list is loaded.
+     *
+     * @param modelFactory creates the model for the game
+     */
+    public WordleController(Supplier<? extends Wordle> modelFactory) {
+        this(modelFactory, Wordle.LETTERS_IN_WORD);
+    }
+
+    /**
+     * Creates the controller with a GUI for words of some length and a model
+     * from a factory. The model is created in the background, and must play
+     * with words of the same length.
+     *
+     * @param modelFactory creates the model for the game
+     * @param wordLength the number of letters in each word
+     */
+    public WordleController(Supplier<? extends Wordle> modelFactory,
+            int wordLength) {
+        modelThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wordle-model");
+            thread.setDaemon(true);
+            return thread;
+        });
+        modelFuture = CompletableFuture.supplyAsync(modelFactory::get,
+                modelThread);
+        gameId = -1;
+        view = new WordleGUI(this, wordLength, Wordle.GUESSES_IN_GAME);
+    }
+
+    /**
+     * Creates the controller with a given model and view, so that the game
+     * can be played without the GUI. Everything runs on the calling thread.
+     *
+     * @param model the model for the game
+     * @param view the view to report results to
+     */
+    public WordleController(Wordle model, WordleView view) {
+        this.modelFuture = CompletableFuture.completedFuture(model);
+        this.view = view;
+        this.modelThread = Runnable::run;
+        this.gameId = -1;
     }
 
     /**
-     * Updates the current guess in the model given a guess from the view and 
-     * returns the results of that guess.
-     * 
+     * Updates the current guess in the model given a guess from the view and
+     * returns the results of that guess. This waits for the model if it is
+     * still being created.
+     *
      * @param guess the word that was entered by the user
+     * @return the results of the guess, or null if the guess was not valid,
+     *         broke the hard mode rules, or the game was already over
      */
-    public void getGuessResults(String guess) {
+    public GuessResult getGuessResults(String guess) {
+        Wordle model = getModel();
         if (model.isValidGuess(guess)) {
             // don't allow gameplay if game is over
-            if (model.isOutOfTurns() || model.getHasGuessedSecretWord()) {
+            String violation = model.isGameOver() ? null
+                    : model.getHardModeViolation(guess);
+            if (model.isGameOver()) {
                 view.endGame(model.getSecretWord());
+            } else if (violation != null) {
+                // in hard mode, revealed letters must be used again
+                view.rejectGuess(guess, violation);
             } else {
-                view.displayGuess(model.getGuessResults(guess));
+                GuessResult result = model.getGuessResults(guess);
+                recordGuess(model, result);
+                view.displayGuess(result);
 
                 // check if game is over
-                if (model.isOutOfTurns() || model.getHasGuessedSecretWord()) {
+                if (model.isGameOver()) {
                     view.endGame(model.getSecretWord());
                 }
+                return result;
             }
         }
+        return null;
+    }
+
+    /**
+     * Submits a guess to be played on the model's thread. The results are
+     * reported to the view, but not necessarily before this returns.
+     *
+     * @param guess the word that was entered by the user
+     */
+    public void submitGuess(String guess) {
+        modelThread.execute(() -> {
+            try {
+                getGuessResults(guess);
+            } catch (CompletionException e) {
+                view.rejectGuess(guess, "Unable to load the word list: "
+                        + e.getCause().getMessage());
+            }
+        });
     }
 
     /**
-     * Starts a new game by refreshing the model and the view.
+     * Starts a new game by refreshing the model and then the view, on the
+     * model's thread after any guesses already submitted.
      */
     public void startNewGame() {
-        view.clearOutput();
-        model.resetGame();
+        modelThread.execute(() -> {
+            Wordle model;
+            try {
+                model = getModel();
+            } catch (CompletionException e) {
+                view.rejectGuess("", "Unable to load the word list: "
+                        + e.getCause().getMessage());
+                return;
+            }
+            model.resetGame();
+
+            // hard mode can still be turned on, so the start of the game is
+            // recorded with its first guess
+            gameId = -1;
+
+            // clear the view only now, so a guess still queued for the old
+            // game can't land on the new board
+            view.clearOutput();
+        });
+    }
+
+    /**
+     * Records every game from now on in a journal. The game in progress is
+     * recorded from its next guess.
+     *
+     * @param journal the journal, or null to stop recording
+     */
+    public void setJournal(GameJournal journal) {
+        modelThread.execute(() -> {
+            this.journal = journal;
+            gameId = -1;
+        });
+    }
+
+    /**
+     * Records the start of a game in the journal, if there is one.
+     *
+     * @param model the model of the game, which has had its first guess
+     */
+    private void recordNewGame(Wordle model) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            gameId = journal.startGame(model);
+        } catch (IOException e) {
+            // losing the record shouldn't stop the game
+            System.out.println("Unable to record the game: "
+                    + e.getMessage());
+            gameId = -1;
+        }
+    }
+
+    /**
+     * Records a guess in the journal, if there is one, starting the game
+     * first if it hasn't been recorded yet.
+     *
+     * @param model the model the guess was played on
+     * @param result the results of the guess
+     */
+    private void recordGuess(Wordle model, GuessResult result) {
+        if (journal == null) {
+            return;
+        }
+        if (gameId == -1) {
+            recordNewGame(model);
+        }
+        try {
+            if (gameId != -1) {
+                journal.recordGuess(gameId, model, result);
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to record the guess: "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Turns hard mode on or off, which is only allowed before the first guess.
+     * This waits for the model if it is still being created.
+     *
+     * @param hardMode true to turn on hard mode
+     * @return true if the mode was changed
+     */
+    public boolean setHardMode(boolean hardMode) {
+        return getModel().setHardMode(hardMode);
+    }
+
+    /**
+     * Turns hard mode on or off on the model's thread, which is only allowed
+     * before the first guess, then reports whether it changed.
+     *
+     * @param hardMode true to turn on hard mode
+     * @param changed told whether the mode was changed
+     */
+    public void setHardMode(boolean hardMode, Consumer<Boolean> changed) {
+        modelThread.execute(() -> {
+            try {
+                changed.accept(setHardMode(hardMode));
+            } catch (CompletionException e) {
+                changed.accept(false);
+            }
+        });
+    }
+
+    /**
+     * Getter method for the model, waiting for it if it is still being
+     * created.
+     *
+     * @return the model for the controller
+     * @throws CompletionException if the model couldn't be created, such as
+     *         when the word list can't be found
+     */
+    public Wordle getModel() {
+        return modelFuture.join();
     }
-}
\ No newline at end of file
+}
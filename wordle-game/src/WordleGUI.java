@@ -3,11 +3,12 @@ import java.awt.*;
 import java.awt.event.*;
 
 /**
- * A GUI for my game of wordle.
+ * A GUI for my game of wordle. The controller may report results from another 
+ * thread, so every WordleView method moves itself onto the Swing event thread.
  * 
  * @author Kergan Sanderson
  */
-public class WordleGUI implements KeyListener {
+public final class WordleGUI implements KeyListener, WordleView {
 
     /** The green color used for the letters. */
     public static final Color GREEN = new Color(65, 179, 65);
@@ -47,6 +48,9 @@ public class WordleGUI implements KeyListener {
     /** The button to press to submit your guess. */
     private JLabel submitLabel;
 
+    /** The box to check to play in hard mode. */
+    private JCheckBox hardModeBox;
+
     /** The field to type in your guess. */
     private JTextField wordField;
 
@@ -57,19 +61,32 @@ public class WordleGUI implements KeyListener {
     private JTextField[] keyboard;
 
     /**
-     * Creates a GUI for the game of Wordle.
+     * Creates a GUI for a classic game of Wordle.
      * 
      * @param controller the controller for the game of Wordle
      */
     public WordleGUI(WordleController controller) {
+        this(controller, Wordle.LETTERS_IN_WORD, Wordle.GUESSES_IN_GAME);
+    }
+
+    /**
+     * Creates a GUI for the game of Wordle with a board of any size.
+     * 
+     * @param controller the controller for the game of Wordle
+     * @param wordLength the number of letters in each guess
+     * @param guessesInGame the number of guesses allowed
+     */
+    public WordleGUI(WordleController controller, int wordLength,
+            int guessesInGame) {
         // create reference to the controller
         this.controller = controller;
 
         // create instance variables
         frame = new JFrame();
         submitLabel = new JLabel("Guess: ");
-        wordField = new JTextField(Wordle.LETTERS_IN_WORD);
-        letters = new JTextField[Wordle.GUESSES_IN_GAME][Wordle.LETTERS_IN_WORD];
+        hardModeBox = new JCheckBox("Hard mode");
+        wordField = new JTextField(wordLength);
+        letters = new JTextField[guessesInGame][wordLength];
         keyboard = new JTextField[QWERTY.length];
 
         // set up the frame
@@ -86,10 +103,10 @@ public class WordleGUI implements KeyListener {
         
         // fill the letter panel with the letter text fields
         JPanel letterPanel = new JPanel(
-                new GridLayout(Wordle.GUESSES_IN_GAME,Wordle.LETTERS_IN_WORD));
+                new GridLayout(guessesInGame, wordLength));
         
-        for (int i = 0; i < Wordle.GUESSES_IN_GAME; i++) {
-            for (int j = 0; j < Wordle.LETTERS_IN_WORD; j++) {
+        for (int i = 0; i < guessesInGame; i++) {
+            for (int j = 0; j < wordLength; j++) {
                 letters[i][j] = new JTextField();
                 letters[i][j].setFont(letterFont);
                 letters[i][j].setForeground(Color.WHITE);
@@ -135,6 +152,20 @@ public class WordleGUI implements KeyListener {
         buttonPanel.setLayout(new FlowLayout());
         buttonPanel.add(submitLabel);
         buttonPanel.add(wordField);
+        buttonPanel.add(hardModeBox);
+
+        // hard mode can only change before the first guess, so undo the click
+        // if the controller refuses it
+        hardModeBox.addActionListener(e -> {
+            boolean selected = hardModeBox.isSelected();
+            controller.setHardMode(selected, changed -> {
+                if (!changed) {
+                    SwingUtilities.invokeLater(
+                            () -> hardModeBox.setSelected(!selected));
+                }
+            });
+            wordField.requestFocusInWindow();
+        });
 
         // populate the bottomPanel
         bottomPanel.add(keyboardPanel, BorderLayout.CENTER);
@@ -172,7 +203,8 @@ public class WordleGUI implements KeyListener {
      */
     public void keyPressed(KeyEvent e) {
         if (e.getKeyCode() == 10) {
-            controller.getGuessResults(wordField.getText().toLowerCase());
+            // the guess is checked and scored off the event thread
+            controller.submitGuess(wordField.getText().toLowerCase());
             wordField.setText("");
         }
     }
@@ -202,15 +234,18 @@ public class WordleGUI implements KeyListener {
      * @param result the results of the user's guess, stored as a GuessResult
      */
     public void displayGuess(GuessResult result) {
-        char[] guessLetters = result.getLetters();
-        char[] guessColors = result.getColors();
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> displayGuess(result));
+            return;
+        }
         int guessIndex = result.getIndex();
 
         // display the letters of the guess and their colors
-        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+        for (int i = 0; i < result.getWordLength(); i++) {
             letters[guessIndex][i].setText(
-                    Character.toString(guessLetters[i]).toUpperCase());
-            letters[guessIndex][i].setBackground(charToColor(guessColors[i]));
+                    Character.toString(result.getLetter(i)).toUpperCase());
+            letters[guessIndex][i].setBackground(
+                    charToColor(result.getColor(i)));
         }
 
         // update the keyboard representation using the guess results
@@ -223,12 +258,9 @@ public class WordleGUI implements KeyListener {
      * @param result the results of the user's guess, stored as a GuessResult
      */
     public void updateKeyboard(GuessResult result) {
-        char[] guessLetters = result.getLetters();
-        char[] guessColors = result.getColors();
-
-        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+        for (int i = 0; i < result.getWordLength(); i++) {
             // get the index of the letter in the alphabet
-            int index = Wordle.indexOfLetter(guessLetters[i]);
+            int index = Wordle.indexOfLetter(result.getLetter(i));
             // converts the index to the index in qwerty
             index = A_TO_Q[index];
 
@@ -237,13 +269,13 @@ public class WordleGUI implements KeyListener {
                 continue;
             } else if (keyboard[index].getBackground() == charToColor('Y')) {
                 // if a letter is yellow, only change it if the guess is green
-                if (guessColors[i] == 'G') {
+                if (result.getColor(i) == 'G') {
                     keyboard[index].setBackground(charToColor('G'));
                     keyboard[index].setForeground(Color.WHITE);
                 }
             } else {
                 // always update a white or gray guessed letter to gray
-                keyboard[index].setBackground(charToColor(guessColors[i]));
+                keyboard[index].setBackground(charToColor(result.getColor(i)));
                 keyboard[index].setForeground(Color.WHITE);
             }
         }
@@ -265,6 +297,20 @@ public class WordleGUI implements KeyListener {
         }
     }
 
+    /**
+     * Tells the user a guess was not allowed with a pop up dialog box.
+     * 
+     * @param guess the guess that was not allowed
+     * @param reason why the guess was not allowed
+     */
+    public void rejectGuess(String guess, String reason) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> rejectGuess(guess, reason));
+            return;
+        }
+        JOptionPane.showMessageDialog(frame, reason);
+    }
+
     /**
      * Ends the game by shutting down functionality of the GUI and displaying a 
      * pop up dialog box.
@@ -272,6 +318,10 @@ public class WordleGUI implements KeyListener {
      * @param secretWord the secret word that the user is trying to guess
      */
     public void endGame(String secretWord) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> endGame(secretWord));
+            return;
+        }
         wordField.setEditable(false);
         int choice = JOptionPane.showConfirmDialog(frame,
                 "The word was: " + secretWord.toUpperCase() + "\n"
@@ -287,9 +337,13 @@ public class WordleGUI implements KeyListener {
      * Clears the output for a new game.
      */
     public void clearOutput() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::clearOutput);
+            return;
+        }
         // reset displayed guesses
-        for (int i = 0; i < Wordle.GUESSES_IN_GAME; i++) {
-            for (int j = 0; j < Wordle.LETTERS_IN_WORD; j++) {
+        for (int i = 0; i < letters.length; i++) {
+            for (int j = 0; j < letters[i].length; j++) {
                 letters[i][j].setText("");
                 letters[i][j].setBackground((new JTextField()).getBackground());
             }
@@ -0,0 +1,244 @@
+/**
+ * The scoring rules of Wordle, working on packed words (see Wordle.packWord).
+ * The colors of a guess are stored as a pattern code from 0 to 242: each
+ * letter is a base 3 digit, with the first letter in the lowest digit, where
+ * 0 is gray, 1 is yellow and 2 is green. Words of other lengths have pattern
+ * codes from 0 to 3 to the power of the length, minus 1, and a slower kernel.
+ *
+ * @author Kergan Sanderson
+ */
+public class WordleScorer {
+
+    /** The number of different patterns a guess can get. */
+    public static final int NUMBER_OF_PATTERNS = 243;
+
+    /** The pattern of a guess that is the secret word. */
+    public static final int ALL_GREEN = 242;
+
+    /** The value of a yellow letter at each position of a pattern. */
+    private static final int[] PLACE_VALUES = {1, 3, 9, 27, 81};
+
+    /** Whether the Vector API is available for scoring many words at once. */
+    private static final boolean VECTORIZED = ModuleLayer.boot()
+            .findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Prevents creating a scorer, since all of its methods are static.
+     */
+    private WordleScorer() {
+    }
+
+    /**
+     * Scores a guess against a secret word. Green letters are found first,
+     * then each remaining guess letter from left to right is yellow if the
+     * secret word has an unmatched copy of it left, just like
+     * Wordle.getGuessResults. Nothing is allocated.
+     *
+     * @param guess the packed guess
+     * @param secret the packed secret word
+     * @return the pattern code for the guess
+     */
+    public static int score(int guess, int secret) {
+        int pattern = 0;
+
+        // bit i is set once letter i of the secret word has been matched
+        int matched = 0;
+
+        // get green letters first
+        int difference = guess ^ secret;
+        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+            if (((difference >>> (5 * i)) & 31) == 0) {
+                matched |= 1 << i;
+                pattern += 2 * PLACE_VALUES[i];
+            }
+        }
+        int greens = matched;
+
+        // get yellow letters next
+        for (int i = 0; i < Wordle.LETTERS_IN_WORD; i++) {
+            // skip already green letters to avoid double counting
+            if ((greens & (1 << i)) != 0) {
+                continue;
+            }
+
+            int letter = (guess >>> (5 * i)) & 31;
+            for (int j = 0; j < Wordle.LETTERS_IN_WORD; j++) {
+                if ((matched & (1 << j)) == 0
+                        && ((secret >>> (5 * j)) & 31) == letter) {
+                    matched |= 1 << j;
+                    pattern += PLACE_VALUES[i];
+                    break;
+                }
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Scores a guess against a secret word of any length up to 12 letters,
+     * with the same rules as score.
+     *
+     * @param guess the packed guess
+     * @param secret the packed secret word
+     * @param length the number of letters in each word
+     * @return the pattern code for the guess
+     */
+    public static int score(long guess, long secret, int length) {
+        int pattern = 0;
+        int placeValue = 1;
+
+        // bit i is set once letter i of the secret word has been matched
+        int matched = 0;
+
+        // get green letters first
+        long difference = guess ^ secret;
+        for (int i = 0; i < length; i++) {
+            if (((difference >>> (5 * i)) & 31) == 0) {
+                matched |= 1 << i;
+                pattern += 2 * placeValue;
+            }
+            placeValue *= 3;
+        }
+        int greens = matched;
+
+        // get yellow letters next
+        placeValue = 1;
+        for (int i = 0; i < length; i++, placeValue *= 3) {
+            // skip already green letters to avoid double counting
+            if ((greens & (1 << i)) != 0) {
+                continue;
+            }
+
+            long letter = (guess >>> (5 * i)) & 31;
+            for (int j = 0; j < length; j++) {
+                if ((matched & (1 << j)) == 0
+                        && ((secret >>> (5 * j)) & 31) == letter) {
+                    matched |= 1 << j;
+                    pattern += placeValue;
+                    break;
+                }
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Returns the number of different patterns a guess can get.
+     *
+     * @param length the number of letters in each word
+     * @return 3 to the power of the length
+     */
+    public static int numberOfPatterns(int length) {
+        int patterns = 1;
+        for (int i = 0; i < length; i++) {
+            patterns *= 3;
+        }
+        return patterns;
+    }
+
+    /**
+     * Returns the pattern of a guess that is the secret word.
+     *
+     * @param length the number of letters in each word
+     * @return the pattern code with every letter green
+     */
+    public static int allGreen(int length) {
+        return numberOfPatterns(length) - 1;
+    }
+
+    /**
+     * Scores a guess against many secret words at once. This uses the Vector
+     * API when the program is run with --add-modules jdk.incubator.vector, and
+     * a plain loop otherwise.
+     *
+     * @param guess the packed guess
+     * @param secrets the packed secret words
+     * @param count the number of secret words to score, from the start
+     * @param patterns where to store the pattern code for each secret word
+     */
+    public static void scoreAll(int guess, int[] secrets, int count,
+            byte[] patterns) {
+        if (VECTORIZED) {
+            VectorScorer.scoreAll(guess, secrets, count, patterns);
+        } else {
+            scoreAllScalar(guess, secrets, count, patterns);
+        }
+    }
+
+    /**
+     * Scores a guess against many secret words one at a time.
+     *
+     * @param guess the packed guess
+     * @param secrets the packed secret words
+     * @param count the number of secret words to score, from the start
+     * @param patterns where to store the pattern code for each secret word
+     */
+    public static void scoreAllScalar(int guess, int[] secrets, int count,
+            byte[] patterns) {
+        for (int s = 0; s < count; s++) {
+            patterns[s] = (byte) score(guess, secrets[s]);
+        }
+    }
+
+    /**
+     * Determines if scoreAll is using the Vector API.
+     *
+     * @return true if many words are scored at once
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Converts a pattern code into colors, where G is green, Y is yellow,
+     * and R is gray.
+     *
+     * @param pattern the pattern code
+     * @return the colors of each letter
+     */
+    public static char[] colorsOf(int pattern) {
+        return colorsOf(pattern, Wordle.LETTERS_IN_WORD);
+    }
+
+    /**
+     * Converts a pattern code for a word of any length into colors.
+     *
+     * @param pattern the pattern code
+     * @param length the number of letters in the word
+     * @return the colors of each letter
+     */
+    public static char[] colorsOf(int pattern, int length) {
+        char[] colors = new char[length];
+        for (int i = 0; i < length; i++) {
+            int digit = pattern % 3;
+            if (digit == 2) {
+                colors[i] = 'G';
+            } else if (digit == 1) {
+                colors[i] = 'Y';
+            } else {
+                colors[i] = 'R';
+            }
+            pattern /= 3;
+        }
+        return colors;
+    }
+
+    /**
+     * Converts colors into a pattern code, for a word of any length.
+     *
+     * @param colors the colors of each letter, as G, Y, or R
+     * @return the pattern code
+     */
+    public static int patternOf(char[] colors) {
+        int pattern = 0;
+        int placeValue = 1;
+        for (int i = 0; i < colors.length; i++, placeValue *= 3) {
+            if (colors[i] == 'G') {
+                pattern += 2 * placeValue;
+            } else if (colors[i] == 'Y') {
+                pattern += placeValue;
+            }
+        }
+        return pattern;
+    }
+}
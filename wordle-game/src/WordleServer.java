@@ -0,0 +1,1221 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hosts many games of Wordle at once over HTTP, answering in JSON. Every
+ * request runs on its own virtual thread, and games that haven't been touched
+ * for a while are evicted so memory stays bounded.
+ *
+ * The endpoints are:
+ *     POST /games               starts a game and returns its id, in hard
+ *                               mode if the query has hard=true, as Evil
+ *                               Wordle if it has evil=true, with words of
+ *                               another length if it has length=n, and
+ *                               from another word list if it has list=name;
+ *                               tier=easy, medium or hard picks the secret
+ *                               word by difficulty, and daily=true uses the
+ *                               word of the day; boards=n plays n boards at
+ *                               once, like Quordle, and takes no other options
+ *     POST /games/{id}/guesses  submits the guess in the request body
+ *     GET  /games/{id}          returns the guesses so far
+ *     GET  /games/{id}/hint     returns the number of answers left and a
+ *                               suggested next guess, for single board games
+ *                               using the shared 5 letter word list
+ *
+ * Tournaments, where every player solves the same secret word, have these:
+ *     POST /tournaments         starts a tournament and returns its id and
+ *                               the key that ends it, taking tier and daily
+ *                               like games do, and minutes=n for how long it
+ *                               runs
+ *     POST /tournaments/{id}/players
+ *                               joins with the name in the request body
+ *     POST /tournaments/{id}/players/{player}/guesses
+ *                               submits the guess in the request body
+ *     GET  /tournaments/{id}/players/{player}
+ *                               returns the player's guesses and rank
+ *     GET  /tournaments/{id}    returns the counts and the top of the
+ *                               leaderboard, or more of it with top=n
+ *     POST /tournaments/{id}/end
+ *                               ends it early, with the key in the request
+ *                               body
+ *
+ * The secret word of a tournament is only shown once it has ended, so a
+ * player can't learn it and join again to solve it in one guess.
+ *
+ * To run it from wordle-game/: java -cp bin WordleServer [port] [journal]
+ *
+ * @author Kergan Sanderson
+ */
+public final class WordleServer {
+
+    /** The port to listen on if none is given. */
+    public static final int DEFAULT_PORT = 8080;
+
+    /** How long a game can sit unused before it is evicted, in milliseconds. */
+    public static final long DEFAULT_IDLE_MILLIS = 10 * 60 * 1000;
+
+    /** The most games that can be in progress at once. */
+    public static final int DEFAULT_MAX_SESSIONS = 100_000;
+
+    /** The most hints to keep cached. */
+    public static final int HINT_CACHE_SIZE = 10_000;
+
+    /** The most tournaments that can be running at once. */
+    public static final int DEFAULT_MAX_TOURNAMENTS = 1000;
+
+    /** The number of standings shown if the query doesn't say. */
+    public static final int DEFAULT_LEADERBOARD_SIZE = 10;
+
+    /** The most standings shown at once. */
+    public static final int MAX_LEADERBOARD_SIZE = 1000;
+
+    /** The longest a tournament can run, in minutes. */
+    public static final int MAX_TOURNAMENT_MINUTES = 24 * 60;
+
+    /** The longest name a tournament player can have. */
+    private static final int MAX_NAME_LENGTH = 20;
+
+    /** The longest request body that will be read, in bytes. */
+    private static final int MAX_BODY_BYTES = 64;
+
+    /** The games in progress, by id. */
+    private final Map<String, Session> sessions;
+
+    /** The games of several boards in progress, by id. */
+    private final Map<String, BoardsSession> boardsSessions;
+
+    /** The tournaments running, by id. */
+    private final Map<String, TournamentEntry> tournaments;
+
+    /** The word list shared by every game. */
+    private final WordDictionary dictionary;
+
+    /** How long a game can sit unused before it is evicted. */
+    private final long idleMillis;
+
+    /** The most games that can be in progress at once. */
+    private final int maxSessions;
+
+    /** The HTTP server. */
+    private final HttpServer server;
+
+    /** Evicts idle games in the background. */
+    private final ScheduledExecutorService evictor;
+
+    /** The hints shared by every game, or null until the first hint. */
+    private volatile HintCache hintCache;
+
+    /** Held while the hint cache is being created. A lock rather than a
+     *  monitor, so a virtual thread waiting on it doesn't pin its carrier. */
+    private final ReentrantLock hintCacheLock;
+
+    /** Picks secret words by difficulty, or null until the first game
+     *  that asks for one. */
+    private volatile SecretPicker secretPicker;
+
+    /** Held while the secret picker is being created, which can mean
+     *  building the decision tree. */
+    private final ReentrantLock secretPickerLock;
+
+    /** The journal new games are recorded in, or null. */
+    private volatile GameJournal journal;
+
+    /**
+     * Creates the server with the default limits.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the port can't be opened
+     */
+    public WordleServer(int port) throws IOException {
+        this(port, WordDictionary.getShared(), DEFAULT_IDLE_MILLIS,
+                DEFAULT_MAX_SESSIONS);
+    }
+
+    /**
+     * Creates the server.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param dictionary the word list shared by every game
+     * @param idleMillis how long a game can sit unused before it is evicted
+     * @param maxSessions the most games that can be in progress at once
+     * @throws IOException if the port can't be opened
+     */
+    public WordleServer(int port, WordDictionary dictionary, long idleMillis,
+            int maxSessions) throws IOException {
+        this.sessions = new ConcurrentHashMap<>();
+        this.boardsSessions = new ConcurrentHashMap<>();
+        this.tournaments = new ConcurrentHashMap<>();
+        this.hintCacheLock = new ReentrantLock();
+        this.secretPickerLock = new ReentrantLock();
+        this.dictionary = dictionary;
+        this.idleMillis = idleMillis;
+        this.maxSessions = maxSessions;
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/games", this::handle);
+        server.createContext("/tournaments", this::handleTournament);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wordle-session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts answering requests and evicting idle games.
+     */
+    public void start() {
+        long period = Math.max(1, idleMillis / 4);
+        evictor.scheduleAtFixedRate(this::evictIdleSessions, period, period,
+                TimeUnit.MILLISECONDS);
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting up to a second for requests to finish.
+     */
+    public void stop() {
+        server.stop(1);
+        evictor.shutdownNow();
+    }
+
+    /**
+     * Records every game started from now on in a journal. The server doesn't
+     * close the journal.
+     *
+     * @param journal the journal, or null to stop recording
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Getter method for the port.
+     *
+     * @return the port the server is listening on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Getter method for the number of sessions.
+     *
+     * @return the number of games in progress
+     */
+    public int getSessionCount() {
+        return sessions.size() + boardsSessions.size();
+    }
+
+    /**
+     * Removes every game and tournament that hasn't been used within the idle
+     * time.
+     */
+    public void evictIdleSessions() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        Iterator<Session> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().lastAccess < cutoff) {
+                iterator.remove();
+            }
+        }
+        boardsSessions.values().removeIf(
+                session -> session.lastAccess < cutoff);
+        tournaments.values().removeIf(entry -> entry.lastAccess < cutoff);
+    }
+
+    /**
+     * Routes a request to the right endpoint.
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response can't be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+
+            // parts[0] is empty and parts[1] is "games"
+            if (parts.length == 2 && method.equals("POST")) {
+                newGame(exchange);
+            } else if (parts.length == 3 && method.equals("GET")) {
+                getState(exchange, parts[2]);
+            } else if (parts.length == 4 && parts[3].equals("guesses")
+                    && method.equals("POST")) {
+                submitGuess(exchange, parts[2]);
+            } else if (parts.length == 4 && parts[3].equals("hint")
+                    && method.equals("GET")) {
+                getHint(exchange, parts[2]);
+            } else {
+                send(exchange, 404, error("Not found"));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Starts a new game.
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response can't be sent
+     */
+    private void newGame(HttpExchange exchange) throws IOException {
+        if (getSessionCount() >= maxSessions) {
+            send(exchange, 503, error("Too many games in progress"));
+            return;
+        }
+        String query = exchange.getRequestURI().getQuery();
+        if (queryParam(query, "boards") != null) {
+            newBoardsGame(exchange, query);
+            return;
+        }
+        Wordle model;
+        try {
+            // other word lists and lengths are loaded the first time they
+            // are played
+            WordDictionary words = dictionary;
+            String list = queryParam(query, "list");
+            String length = queryParam(query, "length");
+            if (list != null || length != null) {
+                words = WordLists.get(
+                        list != null ? list : WordLists.DEFAULT_LIST,
+                        length != null ? Integer.parseInt(length)
+                                : Wordle.LETTERS_IN_WORD);
+            }
+
+            // pick the secret by difficulty, which is rated for the shared
+            // word list only, and means nothing when the secret keeps
+            // changing
+            boolean evil = "true".equals(queryParam(query, "evil"));
+            int secret = pickSecret(query);
+            if (secret != -1 && (words != dictionary || evil)) {
+                throw new IllegalArgumentException(
+                        "Difficulty needs a normal game on the shared list");
+            }
+            model = evil ? new EvilWordle(words) : new Wordle(words);
+            if (secret != -1) {
+                model.resetGame(dictionary.wordAt(secret));
+            }
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error("Invalid game options"));
+            return;
+        } catch (IllegalStateException e) {
+            send(exchange, 500, error("Unable to load the word list"));
+            return;
+        }
+        Session session = new Session(model);
+        GameJournal recordTo = journal;
+        if (recordTo != null) {
+            session.controller.setJournal(recordTo);
+        }
+        if ("true".equals(queryParam(query, "hard"))) {
+            session.controller.setHardMode(true);
+        }
+        String id = UUID.randomUUID().toString();
+        sessions.put(id, session);
+        send(exchange, 201, "{\"id\":\"" + id + "\",\"guessesLeft\":"
+                + model.getGuessesInGame() + "}");
+    }
+
+    /**
+     * Starts a new game of several boards on the shared word list.
+     *
+     * @param exchange the request and its response
+     * @param query the query string, which has the number of boards
+     * @throws IOException if the response can't be sent
+     */
+    private void newBoardsGame(HttpExchange exchange, String query)
+            throws IOException {
+        MultiWordle model;
+        try {
+            // the boards are scored together on the shared word list, so the
+            // single board options don't apply
+            for (String option : new String[] {"hard", "evil", "length",
+                    "list", "tier", "daily"}) {
+                if (queryParam(query, option) != null) {
+                    throw new IllegalArgumentException(option);
+                }
+            }
+            int boards = Integer.parseInt(queryParam(query, "boards"));
+            if (boards < 2 || boards > MultiWordle.SEDECORDLE) {
+                throw new IllegalArgumentException("boards");
+            }
+            model = new MultiWordle(dictionary, boards,
+                    boards + MultiWordle.EXTRA_GUESSES);
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error("Invalid game options"));
+            return;
+        }
+        String id = UUID.randomUUID().toString();
+        boardsSessions.put(id, new BoardsSession(model));
+        send(exchange, 201, "{\"id\":\"" + id + "\",\"boards\":"
+                + model.getBoardCount() + ",\"guessesLeft\":"
+                + model.getGuessesInGame() + "}");
+    }
+
+    /**
+     * Submits a guess to a game.
+     *
+     * @param exchange the request and its response
+     * @param id the id of the game
+     * @throws IOException if the response can't be sent
+     */
+    private void submitGuess(HttpExchange exchange, String id)
+            throws IOException {
+        Session session = sessions.get(id);
+        if (session == null) {
+            BoardsSession boards = boardsSessions.get(id);
+            if (boards != null) {
+                submitBoardsGuess(exchange, boards);
+            } else {
+                send(exchange, 404, error("No such game"));
+            }
+            return;
+        }
+        String guess = readBody(exchange).trim().toLowerCase();
+
+        String response;
+        int status;
+        session.lock.lock();
+        try {
+            session.lastAccess = System.currentTimeMillis();
+            Wordle model = session.controller.getModel();
+            if (model.isGameOver()) {
+                status = 409;
+                response = error("Game is over");
+            } else {
+                session.rejection = null;
+                GuessResult result = session.controller.getGuessResults(guess);
+                if (result == null) {
+                    status = 422;
+                    response = error(session.rejection != null
+                            ? session.rejection : "Not in word list");
+                } else {
+                    status = 200;
+                    response = session.toJson(resultToJson(result));
+                }
+            }
+        } finally {
+            session.lock.unlock();
+        }
+        send(exchange, status, response);
+    }
+
+    /**
+     * Submits a guess to every unsolved board of a game.
+     *
+     * @param exchange the request and its response
+     * @param session the game
+     * @throws IOException if the response can't be sent
+     */
+    private void submitBoardsGuess(HttpExchange exchange,
+            BoardsSession session) throws IOException {
+        String guess = readBody(exchange).trim().toLowerCase();
+
+        String response;
+        int status;
+        session.lock.lock();
+        try {
+            session.lastAccess = System.currentTimeMillis();
+            if (session.controller.getModel().isGameOver()) {
+                status = 409;
+                response = error("Game is over");
+            } else {
+                GuessResult[] results =
+                        session.controller.getGuessResults(guess);
+                if (results == null) {
+                    status = 422;
+                    response = error("Not in word list");
+                } else {
+                    status = 200;
+                    response = session.toJson(results);
+                }
+            }
+        } finally {
+            session.lock.unlock();
+        }
+        send(exchange, status, response);
+    }
+
+    /**
+     * Returns the state of a game.
+     *
+     * @param exchange the request and its response
+     * @param id the id of the game
+     * @throws IOException if the response can't be sent
+     */
+    private void getState(HttpExchange exchange, String id) throws IOException {
+        Session session = sessions.get(id);
+        if (session == null) {
+            BoardsSession boards = boardsSessions.get(id);
+            if (boards == null) {
+                send(exchange, 404, error("No such game"));
+                return;
+            }
+            String response;
+            boards.lock.lock();
+            try {
+                boards.lastAccess = System.currentTimeMillis();
+                response = boards.toJson(null);
+            } finally {
+                boards.lock.unlock();
+            }
+            send(exchange, 200, response);
+            return;
+        }
+        String response;
+        session.lock.lock();
+        try {
+            session.lastAccess = System.currentTimeMillis();
+            response = session.toJson(null);
+        } finally {
+            session.lock.unlock();
+        }
+        send(exchange, 200, response);
+    }
+
+    /**
+     * Returns a hint for a game.
+     *
+     * @param exchange the request and its response
+     * @param id the id of the game
+     * @throws IOException if the response can't be sent
+     */
+    private void getHint(HttpExchange exchange, String id) throws IOException {
+        Session session = sessions.get(id);
+        if (session == null) {
+            if (boardsSessions.containsKey(id)) {
+                send(exchange, 422, error("Hints are for single board games"));
+            } else {
+                send(exchange, 404, error("No such game"));
+            }
+            return;
+        }
+        if (session.controller.getModel().getDictionary() != dictionary) {
+            send(exchange, 422, error("Hints need the shared word list"));
+            return;
+        }
+        List<GuessResult> history;
+        boolean hardMode;
+        session.lock.lock();
+        try {
+            session.lastAccess = System.currentTimeMillis();
+            history = new ArrayList<>(session.history);
+            hardMode = session.controller.getModel().isHardMode();
+        } finally {
+            session.lock.unlock();
+        }
+
+        // hints can be slow to compute, so don't hold the game's lock
+        HintCache.Hint hint = getHintCache().getHint(history, hardMode);
+        String suggestion = hint.getSuggestion() == -1 ? "null"
+                : "\"" + dictionary.wordAt(hint.getSuggestion()) + "\"";
+        send(exchange, 200, "{\"candidates\":" + hint.getCandidateCount()
+                + ",\"suggestion\":" + suggestion + "}");
+    }
+
+    /**
+     * Routes a tournament request to the right endpoint.
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response can't be sent
+     */
+    private void handleTournament(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+
+            // parts[0] is empty and parts[1] is "tournaments"
+            if (parts.length == 2 && method.equals("POST")) {
+                newTournament(exchange);
+                return;
+            }
+            TournamentEntry entry = parts.length > 2
+                    ? tournaments.get(parts[2]) : null;
+            if (entry == null) {
+                send(exchange, 404, error("No such tournament"));
+                return;
+            }
+            entry.touch();
+            if (parts.length == 3 && method.equals("GET")) {
+                getLeaderboard(exchange, entry.tournament);
+            } else if (parts.length == 4 && parts[3].equals("players")
+                    && method.equals("POST")) {
+                joinTournament(exchange, entry.tournament);
+            } else if (parts.length == 4 && parts[3].equals("end")
+                    && method.equals("POST")) {
+                endTournament(exchange, entry);
+            } else if (parts.length >= 5 && parts[3].equals("players")) {
+                Tournament.Player player = entry.tournament.getPlayer(
+                        parts[4]);
+                if (player == null) {
+                    send(exchange, 404, error("No such player"));
+                } else if (parts.length == 5 && method.equals("GET")) {
+                    send(exchange, 200,
+                            playerToJson(entry.tournament, player, null));
+                } else if (parts.length == 6 && parts[5].equals("guesses")
+                        && method.equals("POST")) {
+                    submitTournamentGuess(exchange, entry.tournament, player);
+                } else {
+                    send(exchange, 404, error("Not found"));
+                }
+            } else {
+                send(exchange, 404, error("Not found"));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Starts a new tournament on the shared word list.
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response can't be sent
+     */
+    private void newTournament(HttpExchange exchange) throws IOException {
+        if (tournaments.size() >= DEFAULT_MAX_TOURNAMENTS) {
+            send(exchange, 503, error("Too many tournaments running"));
+            return;
+        }
+        String query = exchange.getRequestURI().getQuery();
+        Tournament tournament;
+        try {
+            long durationMillis = Tournament.DEFAULT_DURATION_MILLIS;
+            String minutes = queryParam(query, "minutes");
+            if (minutes != null) {
+                int n = Integer.parseInt(minutes);
+                if (n < 1 || n > MAX_TOURNAMENT_MINUTES) {
+                    throw new IllegalArgumentException("Invalid duration");
+                }
+                durationMillis = n * 60_000L;
+            }
+            int secret = pickSecret(query);
+            if (secret == -1) {
+                secret = ThreadLocalRandom.current().nextInt(
+                        dictionary.getAnswerIndex(), dictionary.size());
+            }
+            tournament = new Tournament(dictionary, secret,
+                    Wordle.GUESSES_IN_GAME, Tournament.DEFAULT_MAX_PLAYERS,
+                    durationMillis);
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error("Invalid tournament options"));
+            return;
+        } catch (IllegalStateException e) {
+            send(exchange, 500, error("Unable to load the word list"));
+            return;
+        }
+        String id = UUID.randomUUID().toString();
+        String key = UUID.randomUUID().toString();
+        tournaments.put(id, new TournamentEntry(tournament, key));
+        send(exchange, 201, "{\"id\":\"" + id + "\",\"key\":\"" + key
+                + "\",\"guessesLeft\":" + tournament.getGuessesInGame()
+                + ",\"millisLeft\":" + tournament.getMillisLeft() + "}");
+    }
+
+    /**
+     * Ends a tournament early, if the request body holds its key.
+     *
+     * @param exchange the request and its response
+     * @param entry the tournament and its key
+     * @throws IOException if the response can't be sent
+     */
+    private void endTournament(HttpExchange exchange, TournamentEntry entry)
+            throws IOException {
+        String key = readBody(exchange).trim();
+        if (!MessageDigest.isEqual(key.getBytes(StandardCharsets.UTF_8),
+                entry.key.getBytes(StandardCharsets.UTF_8))) {
+            send(exchange, 403, error("Wrong key"));
+            return;
+        }
+        entry.tournament.end();
+        send(exchange, 200, "{\"ended\":true,\"secret\":\""
+                + entry.tournament.getSecretWord() + "\"}");
+    }
+
+    /**
+     * Adds a player to a tournament.
+     *
+     * @param exchange the request and its response
+     * @param tournament the tournament
+     * @throws IOException if the response can't be sent
+     */
+    private void joinTournament(HttpExchange exchange, Tournament tournament)
+            throws IOException {
+        // names are shown to every player, so keep them to plain characters
+        String name = readBody(exchange).trim();
+        if (!name.matches("[A-Za-z0-9_-]{1," + MAX_NAME_LENGTH + "}")) {
+            send(exchange, 400, error("Invalid name"));
+            return;
+        }
+        Tournament.Player player;
+        try {
+            player = tournament.join(name);
+        } catch (IllegalStateException e) {
+            send(exchange, 409, error(e.getMessage()));
+            return;
+        }
+        if (player == null) {
+            send(exchange, 503, error("Tournament is full"));
+            return;
+        }
+        send(exchange, 201, "{\"player\":\"" + player.getId()
+                + "\",\"guessesLeft\":" + tournament.getGuessesInGame()
+                + "}");
+    }
+
+    /**
+     * Submits a tournament player's guess.
+     *
+     * @param exchange the request and its response
+     * @param tournament the tournament
+     * @param player the player making the guess
+     * @throws IOException if the response can't be sent
+     */
+    private void submitTournamentGuess(HttpExchange exchange,
+            Tournament tournament, Tournament.Player player)
+            throws IOException {
+        String guess = readBody(exchange).trim().toLowerCase();
+        GuessResult result;
+        try {
+            result = tournament.submit(player, guess);
+        } catch (IllegalStateException e) {
+            // the game or the whole tournament is over
+            send(exchange, 409, error(e.getMessage()));
+            return;
+        }
+        if (result == null) {
+            send(exchange, 422, error("Not in word list"));
+            return;
+        }
+        send(exchange, 200,
+                playerToJson(tournament, player, resultToJson(result)));
+    }
+
+    /**
+     * Returns the counts and the top of a tournament's leaderboard.
+     *
+     * @param exchange the request and its response
+     * @param tournament the tournament
+     * @throws IOException if the response can't be sent
+     */
+    private void getLeaderboard(HttpExchange exchange, Tournament tournament)
+            throws IOException {
+        int top = DEFAULT_LEADERBOARD_SIZE;
+        String count = queryParam(exchange.getRequestURI().getQuery(), "top");
+        if (count != null) {
+            try {
+                top = Math.min(MAX_LEADERBOARD_SIZE, Integer.parseInt(count));
+            } catch (NumberFormatException e) {
+                top = -1;
+            }
+            if (top < 0) {
+                send(exchange, 400, error("Invalid leaderboard size"));
+                return;
+            }
+        }
+
+        // the standings all come from one snapshot; the counts are read just
+        // after it, so they may include a few more guesses and solves
+        Tournament.Leaderboard leaderboard = tournament.getLeaderboard();
+        boolean ended = tournament.isEnded();
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"ended\":").append(ended);
+        if (ended) {
+            json.append(",\"secret\":\"").append(tournament.getSecretWord())
+                    .append('"');
+        } else {
+            json.append(",\"millisLeft\":")
+                    .append(tournament.getMillisLeft());
+        }
+        json.append(",\"players\":").append(tournament.getPlayerCount());
+        json.append(",\"guesses\":").append(tournament.getGuessCount());
+        json.append(",\"solved\":").append(leaderboard.size());
+        json.append(",\"solvedIn\":{");
+        for (int i = 1; i <= tournament.getGuessesInGame(); i++) {
+            json.append(i > 1 ? "," : "").append('"').append(i).append("\":")
+                    .append(tournament.getSolvedIn(i));
+        }
+        json.append("},\"leaderboard\":[");
+        List<Tournament.Standing> standings = leaderboard.getTop(top);
+        for (int i = 0; i < standings.size(); i++) {
+            Tournament.Standing standing = standings.get(i);
+            json.append(i > 0 ? "," : "").append("{\"rank\":").append(i + 1)
+                    .append(",\"name\":\"")
+                    .append(standing.getPlayer().getName())
+                    .append("\",\"guesses\":").append(standing.getGuesses())
+                    .append(",\"millis\":").append(standing.getSolveMillis())
+                    .append('}');
+        }
+        send(exchange, 200, json.append("]}").toString());
+    }
+
+    /**
+     * Formats a tournament player's game as JSON.
+     *
+     * @param tournament the tournament
+     * @param player the player
+     * @param last the JSON for the latest guess, or null to leave it out
+     * @return the JSON for the player's game
+     */
+    private static String playerToJson(Tournament tournament,
+            Tournament.Player player, String last) {
+        StringBuilder json = new StringBuilder("{");
+        if (last != null) {
+            json.append("\"result\":").append(last).append(',');
+        }
+        json.append("\"guesses\":[");
+        List<GuessResult> results = player.getResults();
+        for (int i = 0; i < results.size(); i++) {
+            json.append(i > 0 ? "," : "").append(resultToJson(results.get(i)));
+        }
+        boolean won = player.hasSolved();
+        boolean over = player.isGameOver();
+        json.append("],\"won\":").append(won);
+        json.append(",\"over\":").append(over);
+        if (won && last == null) {
+            // the rank needs a fresh leaderboard, so guesses leave it out
+            json.append(",\"rank\":")
+                    .append(tournament.getLeaderboard().rankOf(player));
+        }
+        if (tournament.isEnded()) {
+            // every player plays the same word, so it stays hidden until no
+            // one can guess any more
+            json.append(",\"secret\":\"").append(tournament.getSecretWord())
+                    .append('"');
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Picks a secret word by difficulty, if the query asks for one.
+     *
+     * @param query the query string, or null
+     * @return the word list index of the secret word in the shared list, or
+     *         -1 if the query has neither tier nor daily
+     * @throws IllegalArgumentException if the tier is not a tier
+     */
+    private int pickSecret(String query) {
+        String tier = queryParam(query, "tier");
+        boolean daily = "true".equals(queryParam(query, "daily"));
+        if (tier == null && !daily) {
+            return -1;
+        }
+        SecretPicker picker = getSecretPicker();
+        return daily ? picker.daily(LocalDate.now())
+                : picker.pick(AnswerRatings.Tier.valueOf(tier.toUpperCase()));
+    }
+
+    /**
+     * Returns the hint cache, creating it the first time a hint is asked for.
+     *
+     * @return the hint cache
+     */
+    private HintCache getHintCache() {
+        HintCache cache = hintCache;
+        if (cache == null) {
+            hintCacheLock.lock();
+            try {
+                cache = hintCache;
+                if (cache == null) {
+                    cache = new HintCache(new CandidateIndex(dictionary),
+                            new WordleSolver(FeedbackMatrix.load(dictionary)),
+                            HINT_CACHE_SIZE);
+                    hintCache = cache;
+                }
+            } finally {
+                hintCacheLock.unlock();
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the secret picker, loading the answer ratings the first time a
+     * game asks for a difficulty.
+     *
+     * @return the secret picker
+     */
+    private SecretPicker getSecretPicker() {
+        SecretPicker picker = secretPicker;
+        if (picker == null) {
+            secretPickerLock.lock();
+            try {
+                picker = secretPicker;
+                if (picker == null) {
+                    picker = new SecretPicker(AnswerRatings.load(dictionary));
+                    secretPicker = picker;
+                }
+            } finally {
+                secretPickerLock.unlock();
+            }
+        }
+        return picker;
+    }
+
+    /**
+     * Finds the value of a parameter in a query string.
+     *
+     * @param query the query string, such as hard=true&length=6, or null
+     * @param name the name of the parameter
+     * @return the value of the parameter, or null if it isn't there
+     */
+    private static String queryParam(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals != -1 && pair.substring(0, equals).equals(name)) {
+                return pair.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a short request body as text.
+     *
+     * @param exchange the request
+     * @return the body, cut off after a few dozen bytes
+     * @throws IOException if the body can't be read
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES);
+            return new String(body, StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Sends a JSON response.
+     *
+     * @param exchange the request and its response
+     * @param status the HTTP status code
+     * @param json the body of the response
+     * @throws IOException if the response can't be sent
+     */
+    private static void send(HttpExchange exchange, int status, String json)
+            throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Formats an error message as JSON.
+     *
+     * @param message the message
+     * @return the JSON for the error
+     */
+    private static String error(String message) {
+        return "{\"error\":\"" + message + "\"}";
+    }
+
+    /**
+     * Formats the results of a guess as JSON.
+     *
+     * @param result the results of a guess
+     * @return the JSON for the guess
+     */
+    private static String resultToJson(GuessResult result) {
+        return "{\"guess\":\"" + result.getWord()
+                + "\",\"colors\":\"" + result.getColors()
+                + "\",\"index\":" + result.getIndex() + "}";
+    }
+
+    /**
+     * A running tournament, the key that ends it and when it was last used.
+     */
+    private static final class TournamentEntry {
+
+        /** How often the last use is updated, in milliseconds. */
+        private static final long TOUCH_MILLIS = 1000;
+
+        /** The tournament. */
+        private final Tournament tournament;
+
+        /** The key that ends the tournament early. */
+        private final String key;
+
+        /** When the tournament was last used, in milliseconds. */
+        private volatile long lastAccess;
+
+        /**
+         * Creates the entry.
+         *
+         * @param tournament the tournament
+         * @param key the key that ends the tournament early
+         */
+        private TournamentEntry(Tournament tournament, String key) {
+            this.tournament = tournament;
+            this.key = key;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        /**
+         * Marks the tournament as used. Every player's request lands here,
+         * so the time is only written once a second to keep the cores from
+         * passing the field back and forth.
+         */
+        private void touch() {
+            long now = System.currentTimeMillis();
+            if (now - lastAccess > TOUCH_MILLIS) {
+                lastAccess = now;
+            }
+        }
+    }
+
+    /**
+     * A game in progress. The session is the view of its own controller, so
+     * it records every result the controller reports.
+     */
+    private static final class Session implements WordleView {
+
+        /** Lets only one request use the game at a time. */
+        private final ReentrantLock lock;
+
+        /** The controller running the game. */
+        private final WordleController controller;
+
+        /** The results of the guesses so far. */
+        private final List<GuessResult> history;
+
+        /** The secret word once the game is over, or null until then. */
+        private String revealedSecret;
+
+        /** Why the last guess was not allowed, or null if it was. */
+        private String rejection;
+
+        /** When the game was last used, in milliseconds. */
+        private volatile long lastAccess;
+
+        /**
+         * Creates the session.
+         *
+         * @param model the model for the game
+         */
+        private Session(Wordle model) {
+            this.lock = new ReentrantLock();
+            this.controller = new WordleController(model, this);
+            this.history = new ArrayList<>(model.getGuessesInGame());
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        @Override
+        public void displayGuess(GuessResult result) {
+            history.add(result);
+        }
+
+        @Override
+        public void rejectGuess(String guess, String reason) {
+            rejection = reason;
+        }
+
+        @Override
+        public void endGame(String secretWord) {
+            revealedSecret = secretWord;
+        }
+
+        @Override
+        public void clearOutput() {
+            history.clear();
+            revealedSecret = null;
+        }
+
+        /**
+         * Formats the state of the game as JSON. Must be called while holding
+         * the lock.
+         *
+         * @param last the JSON for the latest guess, or null to leave it out
+         * @return the JSON for the game
+         */
+        private String toJson(String last) {
+            StringBuilder json = new StringBuilder("{");
+            if (last != null) {
+                json.append("\"result\":").append(last).append(',');
+            }
+            json.append("\"guesses\":[");
+            for (int i = 0; i < history.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append(resultToJson(history.get(i)));
+            }
+            Wordle model = controller.getModel();
+            json.append("],\"won\":").append(model.getHasGuessedSecretWord());
+            json.append(",\"over\":").append(model.isGameOver());
+            json.append(",\"hard\":").append(model.isHardMode());
+            if (revealedSecret != null) {
+                json.append(",\"secret\":\"").append(revealedSecret)
+                        .append('"');
+            }
+            return json.append('}').toString();
+        }
+    }
+
+    /**
+     * A game of several boards in progress, with a view per board that
+     * records every result the controller reports for it.
+     */
+    private static final class BoardsSession {
+
+        /** Lets only one request use the game at a time. */
+        private final ReentrantLock lock;
+
+        /** The controller running the game. */
+        private final MultiWordleController controller;
+
+        /** The view of each board. */
+        private final Board[] boards;
+
+        /** When the game was last used, in milliseconds. */
+        private volatile long lastAccess;
+
+        /**
+         * Creates the session.
+         *
+         * @param model the model for the game
+         */
+        private BoardsSession(MultiWordle model) {
+            this.lock = new ReentrantLock();
+            this.boards = new Board[model.getBoardCount()];
+            for (int i = 0; i < boards.length; i++) {
+                boards[i] = new Board();
+            }
+            this.controller = new MultiWordleController(model, boards);
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        /**
+         * Formats the state of the game as JSON. Must be called while holding
+         * the lock.
+         *
+         * @param last the results of the latest guess on each board, with
+         *        null for boards already solved, or null to leave them out
+         * @return the JSON for the game
+         */
+        private String toJson(GuessResult[] last) {
+            StringBuilder json = new StringBuilder("{");
+            if (last != null) {
+                json.append("\"results\":[");
+                for (int i = 0; i < last.length; i++) {
+                    json.append(i > 0 ? "," : "").append(last[i] == null
+                            ? "null" : resultToJson(last[i]));
+                }
+                json.append("],");
+            }
+            json.append("\"boards\":[");
+            for (int i = 0; i < boards.length; i++) {
+                json.append(i > 0 ? "," : "").append("{\"guesses\":[");
+                List<GuessResult> history = boards[i].history;
+                for (int j = 0; j < history.size(); j++) {
+                    json.append(j > 0 ? "," : "")
+                            .append(resultToJson(history.get(j)));
+                }
+                json.append("],\"solved\":")
+                        .append(controller.getModel().isSolved(i));
+                if (boards[i].revealedSecret != null) {
+                    json.append(",\"secret\":\"")
+                            .append(boards[i].revealedSecret).append('"');
+                }
+                json.append('}');
+            }
+            MultiWordle model = controller.getModel();
+            json.append("],\"won\":")
+                    .append(model.getHasGuessedSecretWords());
+            json.append(",\"over\":").append(model.isGameOver());
+            json.append(",\"guessesLeft\":").append(model.getGuessesInGame()
+                    - model.getNumberOfGuesses());
+            return json.append('}').toString();
+        }
+    }
+
+    /**
+     * The view of one board of a game of several boards.
+     */
+    private static final class Board implements WordleView {
+
+        /** The results of the guesses on this board. */
+        private final List<GuessResult> history = new ArrayList<>();
+
+        /** The secret word once the board is over, or null until then. */
+        private String revealedSecret;
+
+        @Override
+        public void displayGuess(GuessResult result) {
+            history.add(result);
+        }
+
+        @Override
+        public void rejectGuess(String guess, String reason) {
+        }
+
+        @Override
+        public void endGame(String secretWord) {
+            revealedSecret = secretWord;
+        }
+
+        @Override
+        public void clearOutput() {
+            history.clear();
+            revealedSecret = null;
+        }
+    }
+
+    /**
+     * Starts the program.
+     *
+     * @param args command line arguments, optionally the port to listen on
+     *             and a directory to record every game in
+     * @throws IOException if the port or the journal can't be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        if (args.length > 0) {
+            port = Integer.parseInt(args[0]);
+        }
+        WordleServer server = new WordleServer(port);
+        if (args.length > 1) {
+            GameJournal journal = new GameJournal(Path.of(args[1]));
+            server.setJournal(journal);
+
+            // commit the last few records on the way out
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.out.println("Unable to close the journal");
+                }
+            }));
+        }
+        server.start();
+        System.out.println("Wordle server listening on port "
+                + server.getPort());
+    }
+}
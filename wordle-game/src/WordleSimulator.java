@@ -0,0 +1,184 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Plays a strategy against every possible answer without a GUI, spread over a
+ * pool of threads, and reports how many guesses each game took. This is used
+ * to check strategies and word list changes, so it never touches WordleGUI.
+ *
+ * To run it from wordle-game/: java -cp bin WordleSimulator [threads]
+ *
+ * @author Kergan Sanderson
+ */
+public class WordleSimulator {
+
+    /** The strategy being tested. */
+    private final WordleStrategy strategy;
+
+    /** The number of threads to play games on. */
+    private final int threads;
+
+    /** The number of games won in each number of guesses, by index. */
+    private final AtomicIntegerArray guessCounts;
+
+    /** The secret words of the games that were lost. */
+    private final ConcurrentLinkedQueue<String> failures;
+
+    /** How long the last run took, in nanoseconds. */
+    private long elapsedNanos;
+
+    /** The number of games in the last run. */
+    private int gamesPlayed;
+
+    /**
+     * Creates the simulator.
+     *
+     * @param strategy the strategy to test
+     * @param threads the number of threads to play games on
+     */
+    public WordleSimulator(WordleStrategy strategy, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread");
+        }
+        this.strategy = strategy;
+        this.threads = threads;
+        this.guessCounts = new AtomicIntegerArray(Wordle.GUESSES_IN_GAME + 1);
+        this.failures = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Plays one game for every possible answer and records the results.
+     *
+     * @param dictionary the word list to take the answers from
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public void run(WordDictionary dictionary) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<?>> games = new ArrayList<>(dictionary.getAnswerCount());
+        for (int i = dictionary.getAnswerIndex(); i < dictionary.size(); i++) {
+            String secret = dictionary.wordAt(i);
+            games.add(pool.submit(() -> play(new Wordle(dictionary), secret)));
+        }
+        pool.shutdown();
+
+        // a game that threw is counted as lost, so the totals still add up
+        for (int i = 0; i < games.size(); i++) {
+            try {
+                games.get(i).get();
+            } catch (ExecutionException e) {
+                String secret = dictionary.wordAt(
+                        dictionary.getAnswerIndex() + i);
+                System.out.println("Game for " + secret + " failed: "
+                        + e.getCause());
+                failures.add(secret);
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+        gamesPlayed = dictionary.getAnswerCount();
+    }
+
+    /**
+     * Plays a single game with the strategy and records how it went.
+     *
+     * @param model the model to play on
+     * @param secret the secret word for the game
+     */
+    private void play(Wordle model, String secret) {
+        model.resetGame(secret);
+        List<GuessResult> history = new ArrayList<>();
+        while (!model.isOutOfTurns() && !model.getHasGuessedSecretWord()) {
+            String guess = strategy.nextGuess(history);
+            if (guess == null || !model.isValidGuess(guess)) {
+                break;
+            }
+            history.add(model.getGuessResults(guess));
+        }
+
+        if (model.getHasGuessedSecretWord()) {
+            guessCounts.incrementAndGet(history.size());
+        } else {
+            failures.add(secret);
+        }
+    }
+
+    /**
+     * Returns the number of games won in a given number of guesses.
+     *
+     * @param guesses the number of guesses, from 1 to 6
+     * @return the number of games won in that many guesses
+     */
+    public int getGuessCount(int guesses) {
+        return guessCounts.get(guesses);
+    }
+
+    /**
+     * Returns the secret words of the games that were lost.
+     *
+     * @return the lost secret words in alphabetical order
+     */
+    public List<String> getFailures() {
+        List<String> sorted = new ArrayList<>(failures);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Returns how many games were played per second in the last run.
+     *
+     * @return the number of games per second
+     */
+    public double getGamesPerSecond() {
+        return gamesPlayed * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Prints the guess distribution, the lost games, and the throughput.
+     */
+    public void printReport() {
+        int won = 0;
+        int totalGuesses = 0;
+        System.out.println("Guesses  Games");
+        for (int i = 1; i <= Wordle.GUESSES_IN_GAME; i++) {
+            System.out.printf("%7d  %5d%n", i, getGuessCount(i));
+            won += getGuessCount(i);
+            totalGuesses += i * getGuessCount(i);
+        }
+        List<String> lost = getFailures();
+        System.out.println("Failed: " + lost.size() + " " + lost);
+        if (won > 0) {
+            System.out.printf("Average guesses when won: %.4f%n",
+                    (double) totalGuesses / won);
+        }
+        System.out.printf("%d games in %.2f s (%.1f games/s) on %d threads%n",
+                gamesPlayed, elapsedNanos / 1e9, getGamesPerSecond(), threads);
+    }
+
+    /**
+     * Starts the program.
+     *
+     * @param args command line arguments, optionally the number of threads
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length > 0) {
+            threads = Integer.parseInt(args[0]);
+        }
+
+        WordDictionary dictionary = WordDictionary.getShared();
+        WordleSolver solver = new WordleSolver(FeedbackMatrix.load(dictionary));
+        WordleSimulator simulator = new WordleSimulator(solver, threads);
+        simulator.run(dictionary);
+        simulator.printReport();
+        System.out.printf("Solver: %.1f decisions/s%n",
+                solver.getDecisionsPerSecond());
+    }
+}
@@ -0,0 +1,332 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the next guess in a game of Wordle by choosing the guess with the most
+ * expected information about the secret word. Every word in the word list is
+ * tried against the answers that are still possible, with the guesses split
+ * across all of the cores using fork/join.
+ *
+ * @author Kergan Sanderson
+ */
+public class WordleSolver implements WordleStrategy {
+
+    /** The number of guesses a task scores itself instead of splitting. */
+    private static final int GUESSES_PER_TASK = 512;
+
+    /** The feedback of every guess against every answer. */
+    private final FeedbackMatrix matrix;
+
+    /** The word list. */
+    private final WordDictionary dictionary;
+
+    /** The pool the guesses are scored in. */
+    private final ForkJoinPool pool;
+
+    /** The best first guess, or -1 if it hasn't been found yet. */
+    private volatile int opener;
+
+    /** The number of guesses this solver has picked. */
+    private final AtomicLong decisions;
+
+    /** The total time spent picking guesses, in nanoseconds. */
+    private final AtomicLong decisionNanos;
+
+    /**
+     * Creates a solver that uses the common fork/join pool.
+     *
+     * @param matrix the feedback of every guess against every answer
+     */
+    public WordleSolver(FeedbackMatrix matrix) {
+        this(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a solver that uses the given fork/join pool.
+     *
+     * @param matrix the feedback of every guess against every answer
+     * @param pool the pool to score guesses in
+     */
+    public WordleSolver(FeedbackMatrix matrix, ForkJoinPool pool) {
+        this.matrix = matrix;
+        this.dictionary = matrix.getDictionary();
+        this.pool = pool;
+        this.opener = -1;
+        this.decisions = new AtomicLong();
+        this.decisionNanos = new AtomicLong();
+    }
+
+    /**
+     * Picks the best next guess given the results of the guesses so far.
+     *
+     * @param history the results of the guesses made so far, in order
+     * @return the best next guess, or null if no answer fits the results
+     */
+    @Override
+    public String nextGuess(List<GuessResult> history) {
+        long start = System.nanoTime();
+        int guess;
+        if (history.isEmpty()) {
+            // every game starts from the same place, so only do this once
+            if (opener == -1) {
+                opener = bestGuess(candidatesFor(history));
+            }
+            guess = opener;
+        } else {
+            guess = bestGuess(candidatesFor(history));
+        }
+        decisionNanos.addAndGet(System.nanoTime() - start);
+        decisions.incrementAndGet();
+
+        if (guess == -1) {
+            return null;
+        }
+        return dictionary.wordAt(guess);
+    }
+
+    /**
+     * Finds the answers that would have given every result so far.
+     *
+     * @param history the results of the guesses made so far
+     * @return the word list indices of the remaining answers
+     */
+    public int[] candidatesFor(List<GuessResult> history) {
+        int count = history.size();
+        int[] guesses = new int[count];
+        int[] guessIndices = new int[count];
+        int[] patterns = new int[count];
+        for (int i = 0; i < count; i++) {
+            GuessResult result = history.get(i);
+            guesses[i] = (int) result.getCode();
+            guessIndices[i] = dictionary.indexOf(guesses[i]);
+            patterns[i] = result.getPattern();
+        }
+
+        int[] candidates = new int[dictionary.getAnswerCount()];
+        int found = 0;
+        for (int a = dictionary.getAnswerIndex(); a < dictionary.size(); a++) {
+            boolean fits = true;
+            for (int i = 0; i < count && fits; i++) {
+                int pattern = guessIndices[i] == -1
+                        ? WordleScorer.score(guesses[i],
+                                (int) dictionary.codeAt(a))
+                        : matrix.getPattern(guessIndices[i], a);
+                fits = pattern == patterns[i];
+            }
+            if (fits) {
+                candidates[found++] = a;
+            }
+        }
+        return Arrays.copyOf(candidates, found);
+    }
+
+    /**
+     * Picks the guess that is expected to narrow down the candidates the most.
+     * Among equally good guesses, ones that could be the answer come first.
+     *
+     * @param candidates the word list indices of the remaining answers
+     * @return the word list index of the best guess, or -1 if there are no
+     *         candidates
+     */
+    public int bestGuess(int[] candidates) {
+        return bestGuess(candidates, null);
+    }
+
+    /**
+     * Picks the guess that is expected to narrow down the candidates the
+     * most, out of the guesses that are allowed, such as the guesses that
+     * keep to the rules of hard mode. The candidates must all be allowed.
+     *
+     * @param candidates the word list indices of the remaining answers
+     * @param allowed whether each word in the word list may be guessed, or
+     *        null if every word may be
+     * @return the word list index of the best guess, or -1 if there are no
+     *         candidates
+     */
+    public int bestGuess(int[] candidates, boolean[] allowed) {
+        if (candidates.length <= 2) {
+            // guessing a candidate is at least as good as anything else
+            return candidates.length == 0 ? -1 : candidates[0];
+        }
+
+        // n log n for each bucket size, so leaves don't call Math.log
+        double[] nLogN = new double[candidates.length + 1];
+        for (int n = 2; n <= candidates.length; n++) {
+            nLogN[n] = n * Math.log(n);
+        }
+        boolean[] isCandidate = new boolean[dictionary.size()];
+        for (int c : candidates) {
+            isCandidate[c] = true;
+        }
+
+        Choice best = pool.invoke(new GuessTask(candidates, nLogN, isCandidate,
+                allowed, 0, dictionary.size()));
+        return best.guess;
+    }
+
+    /**
+     * Getter method for the number of decisions.
+     *
+     * @return the number of guesses this solver has picked
+     */
+    public long getDecisions() {
+        return decisions.get();
+    }
+
+    /**
+     * Returns how many guesses this solver picks per second on average.
+     *
+     * @return the number of decisions per second, or 0 if none were made
+     */
+    public double getDecisionsPerSecond() {
+        long nanos = decisionNanos.get();
+        if (nanos == 0) {
+            return 0;
+        }
+        return decisions.get() * 1e9 / nanos;
+    }
+
+    /**
+     * A guess and how well it splits up the candidates.
+     */
+    private static final class Choice {
+
+        /** The word list index of the guess. */
+        private final int guess;
+
+        /** The sum of n log n over its buckets, where lower is better. */
+        private final double cost;
+
+        /** Whether the guess could be the answer. */
+        private final boolean candidate;
+
+        /**
+         * Creates the choice.
+         *
+         * @param guess the word list index of the guess
+         * @param cost the sum of n log n over its buckets
+         * @param candidate whether the guess could be the answer
+         */
+        private Choice(int guess, double cost, boolean candidate) {
+            this.guess = guess;
+            this.cost = cost;
+            this.candidate = candidate;
+        }
+
+        /**
+         * Determines if this choice is better than another one.
+         *
+         * @param other the other choice, which may be null
+         * @return true if this choice should be picked over the other
+         */
+        private boolean isBetterThan(Choice other) {
+            if (other == null || cost < other.cost) {
+                return true;
+            }
+            if (cost > other.cost) {
+                return false;
+            }
+            if (candidate != other.candidate) {
+                return candidate;
+            }
+            return guess < other.guess;
+        }
+    }
+
+    /**
+     * Scores a range of guesses, splitting it in half until it is small.
+     */
+    private final class GuessTask extends RecursiveTask<Choice> {
+
+        /** Tasks are never serialized, but RecursiveTask is Serializable. */
+        private static final long serialVersionUID = 1L;
+
+        /** The word list indices of the remaining answers. */
+        private final int[] candidates;
+
+        /** n log n for each bucket size. */
+        private final double[] nLogN;
+
+        /** Whether each word in the word list is a remaining answer. */
+        private final boolean[] isCandidate;
+
+        /** Whether each word in the word list may be guessed, or null. */
+        private final boolean[] allowed;
+
+        /** The first guess to score. */
+        private final int from;
+
+        /** One past the last guess to score. */
+        private final int to;
+
+        /**
+         * Creates the task.
+         *
+         * @param candidates the word list indices of the remaining answers
+         * @param nLogN n log n for each bucket size
+         * @param isCandidate whether each word is a remaining answer
+         * @param allowed whether each word may be guessed, or null
+         * @param from the first guess to score
+         * @param to one past the last guess to score
+         */
+        private GuessTask(int[] candidates, double[] nLogN,
+                boolean[] isCandidate, boolean[] allowed, int from, int to) {
+            this.candidates = candidates;
+            this.nLogN = nLogN;
+            this.isCandidate = isCandidate;
+            this.allowed = allowed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Choice compute() {
+            if (to - from > GUESSES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                GuessTask left = new GuessTask(candidates, nLogN, isCandidate,
+                        allowed, from, middle);
+                left.fork();
+                Choice right = new GuessTask(candidates, nLogN, isCandidate,
+                        allowed, middle, to).compute();
+                Choice best = left.join();
+                // a half where nothing is allowed has no choice
+                return right != null && right.isBetterThan(best)
+                        ? right : best;
+            }
+
+            int[] buckets = new int[WordleScorer.NUMBER_OF_PATTERNS];
+            int[] used = new int[WordleScorer.NUMBER_OF_PATTERNS];
+            Choice best = null;
+            for (int g = from; g < to; g++) {
+                if (allowed != null && !allowed[g]) {
+                    continue;
+                }
+
+                // count how many candidates fall into each pattern
+                int usedCount = 0;
+                for (int c : candidates) {
+                    int pattern = matrix.getPattern(g, c);
+                    if (buckets[pattern]++ == 0) {
+                        used[usedCount++] = pattern;
+                    }
+                }
+
+                // add up n log n over the buckets and clear them for next time
+                double cost = 0;
+                for (int i = 0; i < usedCount; i++) {
+                    cost += nLogN[buckets[used[i]]];
+                    buckets[used[i]] = 0;
+                }
+
+                Choice choice = new Choice(g, cost, isCandidate[g]);
+                if (choice.isBetterThan(best)) {
+                    best = choice;
+                }
+            }
+            return best;
+        }
+    }
+}
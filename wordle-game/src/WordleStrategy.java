@@ -0,0 +1,17 @@
+import java.util.List;
+
+/**
+ * A way of playing Wordle, which picks each guess from the results so far.
+ * 
+ * @author Kergan Sanderson
+ */
+public interface WordleStrategy {
+
+    /**
+     * Picks the next guess given the results of the guesses so far.
+     * 
+     * @param history the results of the guesses made so far, in order
+     * @return the next guess, or null if the strategy has no guess to make
+     */
+    String nextGuess(List<GuessResult> history);
+}
@@ -0,0 +1,36 @@
+/**
+ * A view for the game of Wordle, which shows the results the controller 
+ * reports. The GUI is one view; headless front ends like the game server 
+ * provide their own.
+ * 
+ * @author Kergan Sanderson
+ */
+public interface WordleView {
+
+    /**
+     * Shows the results of a guess.
+     * 
+     * @param result the results of the user's guess, stored as a GuessResult
+     */
+    void displayGuess(GuessResult result);
+
+    /**
+     * Tells the user a guess was not allowed.
+     * 
+     * @param guess the guess that was not allowed
+     * @param reason why the guess was not allowed
+     */
+    void rejectGuess(String guess, String reason);
+
+    /**
+     * Ends the game.
+     * 
+     * @param secretWord the secret word that the user is trying to guess
+     */
+    void endGame(String secretWord);
+
+    /**
+     * Clears the output for a new game.
+     */
+    void clearOutput();
+}